@@ -0,0 +1,112 @@
+package io.kestra.plugin.transform;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.plugin.transform.internal.ItemErrors;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * The properties shared by the tasks transforming the items of one or more files.
+ */
+public interface TransformFilesInterface {
+
+    @PluginProperty(dynamic = true)
+    @Schema(
+        title = "The file(s) to be transformed.",
+        description = "Must be a `kestra://` internal storage URI, a list of URIs, or a glob pattern (e.g. `data/**/*.ion`) " +
+            "matching files from the current namespace. Gzip compressed files are decompressed on the fly.",
+        anyOf = {String.class, String[].class}
+    )
+    @NotNull
+    Object getFrom();
+
+    @PluginProperty
+    @Schema(title = "The maximum number of files to be transformed concurrently.")
+    @Min(1)
+    Integer getMaxConcurrency();
+
+    @PluginProperty
+    @Schema(
+        title = "If `true`, the items of all files are written to a single output file.",
+        description = "The output file contains the items of each file in the order in which the files were given. " +
+            "Set to `false` to produce one output file per input file."
+    )
+    boolean isMergeOutputs();
+
+    @PluginProperty
+    @Schema(
+        title = "The policy to apply when an item fails to be transformed.",
+        description = """
+            - `FAIL`: the task fails.
+            - `SKIP`: the item is dropped from the output.
+            - `ROUTE`: the item is dropped from the output and written, along with its error message, to the `errorsUri` file.
+            """
+    )
+    @NotNull
+    OnError getOnError();
+
+    @PluginProperty
+    @Schema(
+        title = "The maximum ratio of items that can fail to be transformed before the task fails.",
+        description = "Only applies when `onError` is `SKIP` or `ROUTE`. The ratio is checked continuously once " +
+            ItemErrors.MIN_ITEMS_FOR_ERROR_RATIO + " items were processed, and at the end of the transformation. " +
+            "By default, there is no limit."
+    )
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    Double getMaxErrorRatio();
+
+    /**
+     * Gets the number of input items between two checkpoints, documented by each task
+     * as the properties it can't be combined with differ.
+     */
+    Integer getCheckpointInterval();
+
+    @PluginProperty
+    @Schema(
+        title = "The deduplication mode used with `distinctBy`.",
+        description = """
+            - `EXACT`: the hashes of the last `distinctWindow` distinct keys are remembered, so that a duplicate is dropped if its key was seen within the window.
+            - `APPROXIMATE`: the hashes of all keys are added to a Bloom filter sized by `expectedDistinctItems` and `falsePositiveRate`, \
+            so that all duplicates are dropped, along with a few distinct items.
+            """
+    )
+    @NotNull
+    DistinctMode getDistinctMode();
+
+    @PluginProperty
+    @Schema(
+        title = "The number of distinct keys remembered in `EXACT` deduplication mode.",
+        description = "Only a 64-bit hash of each key is remembered, taking 24 to 40 bytes of memory per key."
+    )
+    @Min(1)
+    Integer getDistinctWindow();
+
+    @PluginProperty
+    @Schema(title = "The expected number of distinct keys, used to size the Bloom filter in `APPROXIMATE` deduplication mode.")
+    @Min(1)
+    Long getExpectedDistinctItems();
+
+    @PluginProperty
+    @Schema(
+        title = "The ratio of distinct items wrongly dropped as duplicates in `APPROXIMATE` deduplication mode.",
+        description = "The ratio holds until `expectedDistinctItems` keys were seen, and grows beyond."
+    )
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax(value = "1.0", inclusive = false)
+    Double getFalsePositiveRate();
+
+    enum OnError {
+        FAIL,
+        SKIP,
+        ROUTE
+    }
+
+    enum DistinctMode {
+        EXACT,
+        APPROXIMATE
+    }
+}
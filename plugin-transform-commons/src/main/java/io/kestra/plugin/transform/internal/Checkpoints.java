@@ -0,0 +1,137 @@
+package io.kestra.plugin.transform.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Stores the progress of a transformation in the KV store of the flow namespace,
+ * so that a retried task run can resume from the last checkpoint instead of starting over.
+ */
+public final class Checkpoints {
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private static final String KEY_PREFIX = "transform_checkpoint_";
+
+    /**
+     * Checkpoints of task runs that never complete are eventually expired.
+     */
+    private static final Duration TTL = Duration.ofDays(7);
+
+    private final KVStore store;
+
+    private final String key;
+
+    /**
+     * Creates a new {@link Checkpoints} instance.
+     *
+     * @param store the {@link KVStore} to use.
+     * @param key   the key of the checkpoint.
+     */
+    private Checkpoints(final KVStore store, final String key) {
+        this.store = Objects.requireNonNull(store, "store can't be null");
+        this.key = Objects.requireNonNull(key, "key can't be null");
+    }
+
+    /**
+     * Gets the {@link Checkpoints} for the given input of the current task run.
+     *
+     * @param runContext the {@link RunContext}.
+     * @param index      the index of the input file.
+     * @return the {@link Checkpoints}, or {@link Optional#empty()} if the task is not running within an execution.
+     */
+    public static Optional<Checkpoints> of(final RunContext runContext, final int index) {
+        final Object executionId = variable(runContext, "execution");
+        final Object taskRunId = variable(runContext, "taskrun");
+        if (executionId == null || taskRunId == null) {
+            return Optional.empty();
+        }
+
+        final String key = KEY_PREFIX + executionId + "_" + taskRunId + "_" + index;
+        return Optional.of(new Checkpoints(runContext.namespaceKv(runContext.flowInfo().namespace()), key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object variable(final RunContext runContext, final String name) {
+        if (runContext.getVariables().get(name) instanceof Map<?, ?> variable) {
+            return ((Map<String, Object>) variable).get("id");
+        }
+        return null;
+    }
+
+    /**
+     * Loads the last saved checkpoint.
+     *
+     * @return the last {@link Checkpoint}, or {@link Checkpoint#EMPTY} if none was saved.
+     */
+    public Checkpoint load() throws Exception {
+        return store.getValue(key)
+            .map(KVValue::value)
+            .map(value -> OBJECT_MAPPER.convertValue(value, Checkpoint.class))
+            .orElse(Checkpoint.EMPTY);
+    }
+
+    /**
+     * Saves the given checkpoint, replacing the previous one.
+     *
+     * @param checkpoint the {@link Checkpoint} to save.
+     */
+    public void save(final Checkpoint checkpoint) throws IOException {
+        store.put(key, new KVValueAndMetadata(new KVMetadata(TTL), OBJECT_MAPPER.convertValue(checkpoint, Map.class)));
+    }
+
+    /**
+     * Deletes the saved checkpoint.
+     */
+    public void delete() throws IOException {
+        store.delete(key);
+    }
+
+    /**
+     * The progress of a transformation.
+     *
+     * @param offset              the number of input items consumed.
+     * @param processedItemsTotal the number of items written to the partitions.
+     * @param partitions          the URIs of the already-flushed output partitions, in order.
+     */
+    public record Checkpoint(
+        long offset,
+        long processedItemsTotal,
+        List<URI> partitions
+    ) {
+
+        public static final Checkpoint EMPTY = new Checkpoint(0, 0, List.of());
+
+        public Checkpoint {
+            partitions = partitions != null ? partitions : List.of();
+        }
+
+        /**
+         * Creates a new checkpoint after a partition was flushed.
+         *
+         * @param consumed  the number of input items consumed for this partition.
+         * @param written   the number of items written to this partition.
+         * @param partition the URI of the partition.
+         * @return a new {@link Checkpoint}.
+         */
+        public Checkpoint next(final long consumed, final long written, final URI partition) {
+            final List<URI> partitions = new ArrayList<>(this.partitions);
+            partitions.add(partition);
+            return new Checkpoint(offset + consumed, processedItemsTotal + written, partitions);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.kestra.plugin.transform.internal;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility class for reading files that may be compressed.
+ */
+public final class CompressedInputStreams {
+
+    /**
+     * The buffer size used for reading and inflating compressed input.
+     */
+    public static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+
+    private CompressedInputStreams() {
+    }
+
+    /**
+     * Wraps the given stream so that gzip content is transparently decompressed while being read.
+     * <p>
+     * Compression is detected from the magic bytes, so files are handled regardless of their extension.
+     * Files made of multiple concatenated gzip members are decompressed member after member.
+     *
+     * @param is the {@link InputStream} to read.
+     * @return a buffered {@link InputStream} returning uncompressed data.
+     * @throws IOException if the gzip header is invalid.
+     */
+    public static InputStream decompressIfNeeded(final InputStream is) throws IOException {
+        final BufferedInputStream buffered = new BufferedInputStream(is, BUFFER_SIZE);
+        buffered.mark(2);
+        final int first = buffered.read();
+        final int second = buffered.read();
+        buffered.reset();
+
+        if (first == GZIP_MAGIC_FIRST_BYTE && second == GZIP_MAGIC_SECOND_BYTE) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        return buffered;
+    }
+}
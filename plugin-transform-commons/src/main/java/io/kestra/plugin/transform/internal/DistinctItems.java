@@ -0,0 +1,236 @@
+package io.kestra.plugin.transform.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drops the items whose key was already seen, within a bounded amount of memory.
+ * <p>
+ * Keys are never held in memory: only a 64-bit hash of each key is. Two modes are available:
+ * <ul>
+ *     <li>exact: the hashes of the last {@code window} distinct keys are held in a set evicting the oldest ones,
+ *     so that a duplicate is detected as long as its key was seen within the window. The set takes 24 to 40 bytes
+ *     per key;</li>
+ *     <li>approximate: the hashes are added to a Bloom filter sized for an expected number of distinct keys and a
+ *     false-positive rate, so that duplicates are always detected, but a few distinct items are dropped as well.</li>
+ * </ul>
+ * This class is thread-safe, so that the items of concurrently transformed files are deduplicated together.
+ */
+public final class DistinctItems {
+
+    private final HashWindow window;
+
+    private final BloomFilter bloomFilter;
+
+    private final AtomicLong duplicateItemsTotal = new AtomicLong();
+
+    private DistinctItems(final HashWindow window, final BloomFilter bloomFilter) {
+        this.window = window;
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Creates a new exact {@link DistinctItems} instance.
+     *
+     * @param windowSize the number of distinct keys to remember.
+     * @return a new {@link DistinctItems}.
+     */
+    public static DistinctItems exact(final int windowSize) {
+        return new DistinctItems(new HashWindow(windowSize), null);
+    }
+
+    /**
+     * Creates a new approximate {@link DistinctItems} instance.
+     *
+     * @param expectedItems     the expected number of distinct keys.
+     * @param falsePositiveRate the expected ratio of distinct items wrongly dropped once {@code expectedItems} keys were seen.
+     * @return a new {@link DistinctItems}.
+     */
+    public static DistinctItems approximate(final long expectedItems, final double falsePositiveRate) {
+        return new DistinctItems(null, new BloomFilter(expectedItems, falsePositiveRate));
+    }
+
+    /**
+     * Records the key of an item.
+     *
+     * @param key the key bytes.
+     * @return {@code true} if the key was not seen before, i.e. the item must be kept.
+     */
+    public boolean add(final byte[] key) {
+        final long hash = hash(key);
+        final boolean added;
+        synchronized (this) {
+            added = bloomFilter != null ? bloomFilter.add(hash) : window.add(hash);
+        }
+        if (!added) {
+            duplicateItemsTotal.incrementAndGet();
+        }
+        return added;
+    }
+
+    /**
+     * Gets the number of items dropped as duplicates.
+     *
+     * @return the number of duplicate items.
+     */
+    public long duplicateItemsTotal() {
+        return duplicateItemsTotal.get();
+    }
+
+    /**
+     * Hashes the given bytes with 64-bit FNV-1a, followed by a finalizer spreading the bits of the hash.
+     */
+    static long hash(final byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * A set of the last {@code capacity} distinct hashes: a ring buffer holds them in insertion order, so that the
+     * oldest one is evicted once it is full, and an open-addressing table with linear probing, at most half full,
+     * holds them for lookups. Hashes are held as primitives, i.e. 8 bytes in the ring and 16 to 32 in the table.
+     */
+    static final class HashWindow {
+
+        static final int MAX_CAPACITY = 1 << 29;
+
+        private final long[] ring;
+
+        private final long[] table;
+
+        private final int mask;
+
+        private int size;
+
+        private int next;
+
+        // zero marks the empty slots of the table, so that it is tracked apart.
+        private boolean containsZero;
+
+        HashWindow(final int capacity) {
+            if (capacity < 1 || capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("The distinct window must be between 1 and " + MAX_CAPACITY + " keys, but was " + capacity);
+            }
+            this.ring = new long[capacity];
+            this.table = new long[Integer.highestOneBit(2 * capacity - 1) << 1];
+            this.mask = table.length - 1;
+        }
+
+        /**
+         * Adds the given hash, evicting the oldest one if the window is full.
+         *
+         * @return {@code true} if the hash was not in the window.
+         */
+        boolean add(final long hash) {
+            if (contains(hash)) {
+                return false;
+            }
+            if (size == ring.length) {
+                remove(ring[next]);
+            } else {
+                size++;
+            }
+            ring[next] = hash;
+            next = next + 1 == ring.length ? 0 : next + 1;
+            insert(hash);
+            return true;
+        }
+
+        private boolean contains(final long hash) {
+            if (hash == 0) {
+                return containsZero;
+            }
+            for (int i = index(hash); table[i] != 0; i = (i + 1) & mask) {
+                if (table[i] == hash) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void insert(final long hash) {
+            if (hash == 0) {
+                containsZero = true;
+                return;
+            }
+            int i = index(hash);
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = hash;
+        }
+
+        private void remove(final long hash) {
+            if (hash == 0) {
+                containsZero = false;
+                return;
+            }
+            int gap = index(hash);
+            while (table[gap] != hash) {
+                gap = (gap + 1) & mask;
+            }
+            // the following hashes of the probe sequence are shifted back, so that no lookup stops at the gap.
+            for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+                if (((i - index(table[i])) & mask) >= ((i - gap) & mask)) {
+                    table[gap] = table[i];
+                    gap = i;
+                }
+            }
+            table[gap] = 0;
+        }
+
+        private int index(final long hash) {
+            return (int) hash & mask;
+        }
+    }
+
+    /**
+     * A Bloom filter probing {@code k} bits derived from a single 64-bit hash by double hashing.
+     */
+    static final class BloomFilter {
+
+        private final long[] bits;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        BloomFilter(final long expectedItems, final double falsePositiveRate) {
+            final long n = Math.max(1, expectedItems);
+            final long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6)];
+            this.bitCount = (long) bits.length << 6;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        /**
+         * Adds the given hash.
+         *
+         * @return {@code true} if at least one of its bits was not set, i.e. the hash was definitely not added before.
+         */
+        boolean add(final long hash) {
+            final long h1 = hash;
+            final long h2 = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+            boolean added = false;
+            for (int i = 0; i < hashCount; i++) {
+                final long index = Math.floorMod(h1 + i * h2, bitCount);
+                final int word = (int) (index >>> 6);
+                final long mask = 1L << index;
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    added = true;
+                }
+            }
+            return added;
+        }
+    }
+}
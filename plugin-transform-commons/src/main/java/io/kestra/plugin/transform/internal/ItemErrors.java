@@ -0,0 +1,155 @@
+package io.kestra.plugin.transform.internal;
+
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Handles the items that fail to be transformed, so that a single bad item does not abort the whole transformation.
+ * <p>
+ * Failed items are dropped from the output and counted. If a routing file is given, each failed item is also
+ * written to it, along with its error message.
+ */
+public final class ItemErrors implements Closeable {
+
+    /**
+     * The minimum number of items to process before the error ratio is checked, so that
+     * a failure among the very first items does not abort the transformation.
+     */
+    public static final int MIN_ITEMS_FOR_ERROR_RATIO = 100;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Double maxErrorRatio;
+
+    private final OutputStream routed;
+
+    private final AtomicLong itemsTotal = new AtomicLong();
+
+    private final AtomicLong failedItemsTotal = new AtomicLong();
+
+    /**
+     * Creates a new {@link ItemErrors} instance.
+     *
+     * @param maxErrorRatio the maximum ratio of failed items, or {@code null} for no limit.
+     * @param routePath     the file to write failed items to, or {@code null} to only skip them.
+     */
+    public ItemErrors(final Double maxErrorRatio, final Path routePath) throws IOException {
+        this.maxErrorRatio = maxErrorRatio;
+        this.routed = routePath != null ? new BufferedOutputStream(Files.newOutputStream(routePath), BUFFER_SIZE) : null;
+    }
+
+    /**
+     * Applies the given function to each item, dropping and recording the items for which it fails.
+     *
+     * @param items     the items to transform.
+     * @param transform the transformation to apply, returning {@code null} to drop an item.
+     * @return the transformed items.
+     */
+    public <T, R> Flux<R> apply(final Flux<T> items, final Function<T, R> transform) {
+        return items.<R>handle((item, sink) -> {
+            final long total = itemsTotal.incrementAndGet();
+            final R result;
+            try {
+                result = transform.apply(item);
+            } catch (RuntimeException e) {
+                onError(item, e);
+                if (isErrorRatioExceeded(total)) {
+                    sink.error(errorRatioExceeded());
+                }
+                return;
+            }
+            if (result != null) {
+                sink.next(result);
+            }
+        });
+    }
+
+    private void onError(final Object item, final RuntimeException e) {
+        failedItemsTotal.incrementAndGet();
+        if (routed != null) {
+            final Map<String, Object> failed = new LinkedHashMap<>();
+            failed.put("item", item);
+            failed.put("error", message(e));
+            synchronized (routed) {
+                try {
+                    FileSerde.write(routed, failed);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }
+        }
+    }
+
+    private boolean isErrorRatioExceeded(final long total) {
+        return total >= MIN_ITEMS_FOR_ERROR_RATIO && ratio(total) > maxErrorRatio();
+    }
+
+    private double ratio(final long total) {
+        return total == 0 ? 0 : (double) failedItemsTotal.get() / total;
+    }
+
+    private double maxErrorRatio() {
+        return maxErrorRatio != null ? maxErrorRatio : 1.0;
+    }
+
+    private IllegalStateException errorRatioExceeded() {
+        return new IllegalStateException(String.format(
+            "Transformation aborted: %d of %d items failed, which exceeds the maximum error ratio of %s",
+            failedItemsTotal.get(),
+            itemsTotal.get(),
+            maxErrorRatio()
+        ));
+    }
+
+    /**
+     * Checks the error ratio over all processed items.
+     *
+     * @throws IllegalStateException if the maximum error ratio is exceeded.
+     */
+    public void checkErrorRatio() {
+        if (ratio(itemsTotal.get()) > maxErrorRatio()) {
+            throw errorRatioExceeded();
+        }
+    }
+
+    /**
+     * Gets the number of items that failed to be transformed.
+     *
+     * @return the number of failed items.
+     */
+    public long failedItemsTotal() {
+        return failedItemsTotal.get();
+    }
+
+    private static String message(final Throwable e) {
+        final StringBuilder sb = new StringBuilder(String.valueOf(e.getMessage()));
+        for (Throwable cause = e.getCause(); cause != null && cause != e; cause = cause.getCause()) {
+            if (cause.getMessage() != null) {
+                sb.append(": ").append(cause.getMessage());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (routed != null) {
+            routed.close();
+        }
+    }
+}
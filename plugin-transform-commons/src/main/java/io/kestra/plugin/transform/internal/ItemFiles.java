@@ -0,0 +1,207 @@
+package io.kestra.plugin.transform.internal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.NamespaceFile;
+import io.kestra.plugin.transform.internal.Checkpoints.Checkpoint;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
+import static io.kestra.core.utils.Rethrow.throwFunction;
+
+/**
+ * Reads and writes the files of the tasks transforming items, one file per input.
+ */
+public final class ItemFiles {
+
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private static final String STORAGE_SCHEME = "kestra";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ItemFiles() {
+    }
+
+    /**
+     * Resolves the files to be transformed.
+     *
+     * @param runContext the {@link RunContext}.
+     * @param from       the {@code from} property: an internal storage URI, a list of URIs, or a glob pattern matching namespace files.
+     * @return the URIs of the files, in the given order.
+     * @throws IllegalArgumentException if no file is found.
+     */
+    public static List<URI> inputs(final RunContext runContext, final Object from) throws Exception {
+        final List<URI> inputs = new ArrayList<>();
+        for (String value : fromValues(runContext, from)) {
+            URI uri = URI.create(value);
+            if (STORAGE_SCHEME.equals(uri.getScheme())) {
+                inputs.add(uri);
+            } else {
+                runContext.storage().namespace()
+                    .findAllFilesMatching(List.of(value), List.of())
+                    .stream()
+                    .map(NamespaceFile::uri)
+                    .forEach(inputs::add);
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No file found to be transformed for `from`: " + from);
+        }
+        return inputs;
+    }
+
+    private static List<String> fromValues(final RunContext runContext, final Object from) throws Exception {
+        if (from instanceof Collection<?> collection) {
+            final List<String> values = new ArrayList<>(collection.size());
+            for (Object value : collection) {
+                values.add(runContext.render(String.valueOf(value)));
+            }
+            return values;
+        }
+
+        // the rendered value can be a JSON array, e.g. when `from` is an expression returning a list of URIs.
+        final String rendered = runContext.render(String.valueOf(from)).trim();
+        if (rendered.startsWith("[")) {
+            return JSON_OBJECT_MAPPER.readValue(rendered, new TypeReference<>() {
+            });
+        }
+        return List.of(rendered);
+    }
+
+    /**
+     * Merges the given files into a single one, deleting them.
+     * Newline delimited files, e.g. ION text values or NDJSON lines, can be merged by appending them.
+     *
+     * @param runContext the {@link RunContext}.
+     * @param paths      the files to merge, in order.
+     * @param extension  the extension of the merged file.
+     * @return the merged file, or the given file if there is only one.
+     */
+    public static Path merge(final RunContext runContext, final List<Path> paths, final String extension) throws IOException {
+        if (paths.size() == 1) {
+            return paths.getFirst();
+        }
+
+        final Path ouputFilePath = runContext.workingDir().createTempFile(extension);
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(ouputFilePath), BUFFER_SIZE)) {
+            for (Path path : paths) {
+                Files.copy(path, os);
+                Files.deleteIfExists(path);
+            }
+        }
+        return ouputFilePath;
+    }
+
+    /**
+     * Transforms the given items, flushing the transformed items to the internal storage as a new partition
+     * every {@code interval} input items, and recording the progress with the given {@link Checkpoints}.
+     * The transformation resumes from the last saved checkpoint, if any.
+     *
+     * @param runContext  the {@link RunContext}.
+     * @param items       the input items, from the first one.
+     * @param checkpoints the {@link Checkpoints} of the input file.
+     * @param interval    the number of input items between two checkpoints.
+     * @param pipeline    the transformation of a window of input items.
+     * @param writer      the {@link Writer} of a partition.
+     * @param extension   the extension of a partition file.
+     * @param os          the {@link OutputStream} to which all the partitions are finally written.
+     * @return the number of items written, including those written by previous attempts.
+     */
+    public static <T> long transformCheckpointed(final RunContext runContext,
+                                                 final Flux<T> items,
+                                                 final Checkpoints checkpoints,
+                                                 final int interval,
+                                                 final Function<Flux<T>, Flux<?>> pipeline,
+                                                 final Writer writer,
+                                                 final String extension,
+                                                 final OutputStream os) throws Exception {
+        final Checkpoint resumed = checkpoints.load();
+        if (resumed.offset() > 0) {
+            runContext.logger().info(
+                "Resuming transformation from checkpoint at item {} ({} partitions already written)",
+                resumed.offset(),
+                resumed.partitions().size()
+            );
+        }
+
+        final AtomicReference<Checkpoint> current = new AtomicReference<>(resumed);
+        items
+            .skip(resumed.offset())
+            .window(interval)
+            .concatMap(throwFunction(window -> {
+                final AtomicLong consumed = new AtomicLong();
+                return writePartition(runContext, pipeline.apply(window.doOnNext(item -> consumed.incrementAndGet())), writer, extension)
+                    .doOnNext(throwConsumer(partition -> {
+                        Checkpoint next = current.get().next(consumed.get(), partition.processedItemsTotal(), partition.uri());
+                        checkpoints.save(next);
+                        current.set(next);
+                    }));
+            }))
+            .then()
+            .block();
+
+        // the output is made of all partitions, including those written by previous attempts.
+        final Checkpoint last = current.get();
+        for (URI partition : last.partitions()) {
+            try (InputStream is = runContext.storage().getFile(partition)) {
+                is.transferTo(os);
+            }
+        }
+        return last.processedItemsTotal();
+    }
+
+    private static Mono<Partition> writePartition(final RunContext runContext,
+                                                  final Flux<?> values,
+                                                  final Writer writer,
+                                                  final String extension) throws IOException {
+        final Path partitionFilePath = runContext.workingDir().createTempFile(extension);
+        final OutputStream os = new BufferedOutputStream(Files.newOutputStream(partitionFilePath), BUFFER_SIZE);
+        return writer.writeAll(os, values)
+            .map(throwFunction(processedItemsTotal -> {
+                os.close();
+                return new Partition(runContext.storage().putFile(partitionFilePath.toFile()), processedItemsTotal);
+            }))
+            .doFinally(throwConsumer(signal -> {
+                os.close();
+                Files.deleteIfExists(partitionFilePath);
+            }));
+    }
+
+    /**
+     * Writes items to a file, e.g. {@code FileSerde::writeAll}.
+     */
+    @FunctionalInterface
+    public interface Writer {
+
+        /**
+         * Writes all the given values.
+         *
+         * @param os     the {@link OutputStream} to write to.
+         * @param values the values to write.
+         * @return the number of values written.
+         */
+        Mono<Long> writeAll(OutputStream os, Flux<?> values) throws IOException;
+    }
+
+    private record Partition(URI uri, long processedItemsTotal) {
+    }
+}
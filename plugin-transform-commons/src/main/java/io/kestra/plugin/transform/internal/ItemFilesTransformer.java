@@ -0,0 +1,323 @@
+package io.kestra.plugin.transform.internal;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.transform.TransformFilesInterface;
+import io.kestra.plugin.transform.TransformFilesInterface.DistinctMode;
+import io.kestra.plugin.transform.TransformFilesInterface.OnError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Transforms the items of one or more files, as configured by a {@link TransformFilesInterface} task.
+ * <p>
+ * Each input file is transformed into its own output file, concurrently unless the files share a state.
+ * The output files are then either merged or stored one by one, and the items are counted as written,
+ * so that the counts and the output size always match the stored files.
+ * The failed items and the duplicates are tracked across all files.
+ */
+public final class ItemFilesTransformer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TransformFilesInterface task;
+
+    private final String extension;
+
+    private final ItemFiles.Writer writer;
+
+    /**
+     * Creates a new {@link ItemFilesTransformer} instance.
+     *
+     * @param task      the task to run.
+     * @param extension the extension of the output files.
+     * @param writer    the {@link ItemFiles.Writer} of the output files.
+     */
+    public ItemFilesTransformer(final TransformFilesInterface task, final String extension, final ItemFiles.Writer writer) {
+        this.task = Objects.requireNonNull(task, "task can't be null");
+        this.extension = Objects.requireNonNull(extension, "extension can't be null");
+        this.writer = Objects.requireNonNull(writer, "writer can't be null");
+    }
+
+    /**
+     * Transforms all the items of the input files.
+     *
+     * @param runContext     the {@link RunContext}.
+     * @param deduplicate    {@code true} if the items are deduplicated, i.e. if {@code distinctBy} is set.
+     * @param transformation the {@link Transformation} of the items.
+     * @return the {@link Result}.
+     */
+    public Result run(final RunContext runContext, final boolean deduplicate, final Transformation transformation) throws Exception {
+        checkCheckpointInterval(deduplicate);
+        final List<URI> inputs = ItemFiles.inputs(runContext, task.getFrom());
+
+        if (task.getCheckpointInterval() != null && Checkpoints.of(runContext, 0).isEmpty()) {
+            runContext.logger().warn("Checkpointing is disabled as the task is not running within an execution");
+        }
+
+        final DistinctItems distinct = deduplicate ? distinctItems() : null;
+
+        final Path errorsFilePath = task.getOnError() == OnError.ROUTE ? runContext.workingDir().createTempFile(".ion") : null;
+        try (ItemErrors errors = task.getOnError() != OnError.FAIL ? new ItemErrors(task.getMaxErrorRatio(), errorsFilePath) : null) {
+            final List<TransformedFile> transformed;
+            try {
+                transformed = Flux.range(0, inputs.size())
+                    .flatMapSequential(
+                        index -> Mono.fromCallable(() -> transform(runContext, inputs.get(index), index, transformation, errors, distinct)).subscribeOn(Schedulers.boundedElastic()),
+                        // files sharing a state, e.g. the deduplication one, are transformed in order, for the output to be deterministic.
+                        distinct != null || transformation.isSequential() ? 1 : task.getMaxConcurrency()
+                    )
+                    .collectList()
+                    .block();
+            } finally {
+                if (errors != null) {
+                    runContext.metric(Counter.of("failed.items", errors.failedItemsTotal()));
+                }
+                if (distinct != null) {
+                    runContext.metric(Counter.of("duplicate.items", distinct.duplicateItemsTotal()));
+                }
+            }
+
+            try {
+                if (errors != null) {
+                    errors.checkErrorRatio();
+                }
+
+                long processedItemsTotal = 0;
+                long outputBytesTotal = 0;
+                final List<FileResult> files = new ArrayList<>(transformed.size());
+                URI uri = null;
+                if (task.isMergeOutputs() || transformed.size() == 1) {
+                    final Path merged = ItemFiles.merge(runContext, transformed.stream().map(TransformedFile::path).toList(), extension);
+                    try {
+                        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(merged, StandardOpenOption.APPEND), BUFFER_SIZE)) {
+                            processedItemsTotal += transformation.complete(os);
+                        }
+                        outputBytesTotal += Files.size(merged);
+                        uri = runContext.storage().putFile(merged.toFile());
+                    } finally {
+                        Files.deleteIfExists(merged);
+                    }
+                    for (TransformedFile file : transformed) {
+                        processedItemsTotal += file.processedItemsTotal();
+                        files.add(new FileResult(file.from(), null, transformation.processedItemsTotal(file.index(), file.processedItemsTotal())));
+                    }
+                } else {
+                    for (TransformedFile file : transformed) {
+                        processedItemsTotal += file.processedItemsTotal();
+                        outputBytesTotal += Files.size(file.path());
+                        files.add(new FileResult(file.from(), runContext.storage().putFile(file.path().toFile()), file.processedItemsTotal()));
+                    }
+                }
+
+                URI errorsUri = null;
+                if (errorsFilePath != null) {
+                    errors.close();
+                    errorsUri = runContext.storage().putFile(errorsFilePath.toFile());
+                }
+
+                for (TransformedFile file : transformed) {
+                    if (file.checkpoints() != null) {
+                        file.checkpoints().delete();
+                    }
+                }
+
+                return new Result(
+                    uri,
+                    processedItemsTotal,
+                    errors != null ? errors.failedItemsTotal() : null,
+                    errorsUri,
+                    distinct != null ? distinct.duplicateItemsTotal() : null,
+                    outputBytesTotal,
+                    files
+                );
+            } finally {
+                for (TransformedFile file : transformed) {
+                    Files.deleteIfExists(file.path()); // ensure temp files are deleted in case of error
+                }
+            }
+        } finally {
+            if (errorsFilePath != null) {
+                Files.deleteIfExists(errorsFilePath);
+            }
+        }
+    }
+
+    private void checkCheckpointInterval(final boolean deduplicate) {
+        if (task.getCheckpointInterval() == null) {
+            return;
+        }
+        // the routed items and the deduplication state are shared by all input files, so they can't be resumed.
+        if (task.getOnError() == OnError.ROUTE) {
+            throw new IllegalArgumentException("`checkpointInterval` can't be combined with `onError: ROUTE`, as the routed items are not checkpointed");
+        }
+        if (deduplicate) {
+            throw new IllegalArgumentException("`checkpointInterval` can't be combined with `distinctBy`, as the deduplication state is not checkpointed");
+        }
+    }
+
+    private DistinctItems distinctItems() {
+        return task.getDistinctMode() == DistinctMode.APPROXIMATE
+            ? DistinctItems.approximate(task.getExpectedDistinctItems(), task.getFalsePositiveRate())
+            : DistinctItems.exact(task.getDistinctWindow());
+    }
+
+    private TransformedFile transform(final RunContext runContext,
+                                      final URI from,
+                                      final int index,
+                                      final Transformation transformation,
+                                      final ItemErrors errors,
+                                      final DistinctItems distinct) throws Exception {
+        final Checkpoints checkpoints = task.getCheckpointInterval() != null ? Checkpoints.of(runContext, index).orElse(null) : null;
+
+        final Path ouputFilePath = runContext.workingDir().createTempFile(extension);
+        try (InputStream is = CompressedInputStreams.decompressIfNeeded(runContext.storage().getFile(from));
+             FileTransformation<?> file = transformation.open(from, index, is, errors, distinct);
+             OutputStream os = new BufferedOutputStream(Files.newOutputStream(ouputFilePath), BUFFER_SIZE)) {
+            final long processedItemsTotal = write(runContext, file, checkpoints, os);
+            return new TransformedFile(from, index, ouputFilePath, processedItemsTotal, checkpoints);
+        } catch (Exception e) {
+            Files.deleteIfExists(ouputFilePath); // ensure temp file is deleted in case of error
+            throw e;
+        }
+    }
+
+    private <T> long write(final RunContext runContext,
+                           final FileTransformation<T> file,
+                           final Checkpoints checkpoints,
+                           final OutputStream os) throws Exception {
+        if (checkpoints != null) {
+            return ItemFiles.transformCheckpointed(runContext, file.items(), checkpoints, task.getCheckpointInterval(), file::transform, writer, extension, os);
+        }
+        return writer.writeAll(os, file.transform(file.items())).block();
+    }
+
+    /**
+     * The transformation of the items of the input files, implemented by each task.
+     */
+    public interface Transformation {
+
+        /**
+         * Opens the transformation of an input file.
+         *
+         * @param from     the URI of the input file.
+         * @param index    the index of the input file.
+         * @param is       the {@link InputStream} of the input file, decompressed if needed.
+         * @param errors   the {@link ItemErrors} to apply, or {@code null} if errors are failing the task.
+         * @param distinct the {@link DistinctItems} to apply, or {@code null} if the items are not deduplicated.
+         * @return the {@link FileTransformation}.
+         */
+        FileTransformation<?> open(URI from, int index, InputStream is, ItemErrors errors, DistinctItems distinct) throws Exception;
+
+        /**
+         * Checks whether the input files must be transformed one at a time, in order, e.g. when they share a state.
+         *
+         * @return {@code true} to transform the files one at a time.
+         */
+        default boolean isSequential() {
+            return false;
+        }
+
+        /**
+         * Writes the items completing the merged output, after those written for each input file,
+         * e.g. the items buffered across files.
+         *
+         * @param os the {@link OutputStream} of the merged output.
+         * @return the number of items written.
+         */
+        default long complete(final OutputStream os) throws IOException {
+            return 0;
+        }
+
+        /**
+         * Gets the number of items of an input file written to the merged output.
+         *
+         * @param index   the index of the input file.
+         * @param written the number of items written for the input file.
+         * @return the number of items.
+         */
+        default long processedItemsTotal(final int index, final long written) {
+            return written;
+        }
+    }
+
+    /**
+     * The transformation of the items of one input file.
+     *
+     * @param <T> the type of the input items.
+     */
+    public interface FileTransformation<T> extends Closeable {
+
+        /**
+         * Reads the input items.
+         *
+         * @return the items, from the first one.
+         */
+        Flux<T> items();
+
+        /**
+         * Transforms the given input items, all or a window of them when checkpointed.
+         *
+         * @param items the input items.
+         * @return the items to write.
+         */
+        Flux<?> transform(Flux<T> items);
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private record TransformedFile(URI from, int index, Path path, long processedItemsTotal, Checkpoints checkpoints) {
+    }
+
+    /**
+     * The result of a transformation.
+     *
+     * @param uri                 the URI of the transformed file, if the outputs were merged.
+     * @param processedItemsTotal the number of items written.
+     * @param failedItemsTotal    the number of items that failed to be transformed, if errors are not failing the task.
+     * @param errorsUri           the URI of the file containing the failed items, if routed.
+     * @param duplicateItemsTotal the number of items dropped as duplicates, if deduplicated.
+     * @param outputBytesTotal    the size, in bytes, of the stored output files.
+     * @param files               the result for each input file.
+     */
+    public record Result(
+        URI uri,
+        long processedItemsTotal,
+        Long failedItemsTotal,
+        URI errorsUri,
+        Long duplicateItemsTotal,
+        long outputBytesTotal,
+        List<FileResult> files
+    ) {
+    }
+
+    /**
+     * The result of the transformation of one input file.
+     *
+     * @param from                the URI of the input file.
+     * @param uri                 the URI of the transformed file, if the outputs were not merged.
+     * @param processedItemsTotal the number of items written.
+     */
+    public record FileResult(
+        URI from,
+        URI uri,
+        long processedItemsTotal
+    ) {
+    }
+}
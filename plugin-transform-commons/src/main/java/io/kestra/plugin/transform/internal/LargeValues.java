@@ -0,0 +1,53 @@
+package io.kestra.plugin.transform.internal;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps large task output values out of the execution context.
+ * <p>
+ * Task outputs are serialized, stored, and read back by every subsequent task of an execution, so a value above
+ * a given size is written to the internal storage instead, and only its URI is returned.
+ */
+public final class LargeValues {
+
+    private LargeValues() {
+    }
+
+    /**
+     * Writes the given value to the internal storage, as a single ION value, if its serialized size exceeds the given maximum.
+     *
+     * @param runContext    the {@link RunContext}.
+     * @param value         the value.
+     * @param maxInlineSize the maximum size, in bytes, of a value returned inline, or {@code null} for no limit.
+     * @return the URI of the stored value, or {@code null} if the value should be returned inline.
+     */
+    public static URI storeIfLarger(final RunContext runContext, final Object value, final Integer maxInlineSize) throws IOException {
+        if (maxInlineSize == null || value == null) {
+            return null;
+        }
+
+        final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        FileSerde.write(serialized, value);
+        if (serialized.size() <= maxInlineSize) {
+            return null;
+        }
+
+        final Path path = runContext.workingDir().createTempFile(".ion");
+        try {
+            try (OutputStream os = Files.newOutputStream(path)) {
+                serialized.writeTo(os);
+            }
+            return runContext.storage().putFile(path.toFile());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
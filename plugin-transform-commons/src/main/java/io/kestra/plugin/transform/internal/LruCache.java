@@ -0,0 +1,72 @@
+package io.kestra.plugin.transform.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A cache holding the most recently used values, computed from their key on a miss.
+ * <p>
+ * Keys can be computed per item, e.g. a format given by an expression, so that the cache is bounded to not grow with the data.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class LruCache<V> {
+
+    /**
+     * The default number of values held by a cache.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<String, V> values;
+
+    private final Function<String, V> loader;
+
+    /**
+     * Creates a new {@link LruCache} instance.
+     *
+     * @param capacity the maximum number of values held.
+     * @param loader   the function computing a value from its key.
+     */
+    public LruCache(final int capacity, final Function<String, V> loader) {
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.loader = loader;
+    }
+
+    /**
+     * Gets the value of the given key, computing it if it is not held.
+     *
+     * @param key the key.
+     * @return the value.
+     */
+    public V get(final String key) {
+        synchronized (values) {
+            final V value = values.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        // the value is computed outside the lock, so that a slow computation does not block the other threads.
+        final V value = loader.apply(key);
+        synchronized (values) {
+            values.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of values held.
+     *
+     * @return the size.
+     */
+    public int size() {
+        synchronized (values) {
+            return values.size();
+        }
+    }
+}
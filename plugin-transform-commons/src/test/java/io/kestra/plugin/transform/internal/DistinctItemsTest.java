@@ -0,0 +1,48 @@
+package io.kestra.plugin.transform.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+class DistinctItemsTest {
+
+    @Test
+    void shouldDropDuplicatesGivenKeysWithinWindow() {
+        final DistinctItems distinct = DistinctItems.exact(2);
+
+        Assertions.assertTrue(distinct.add(bytes("a")));
+        Assertions.assertTrue(distinct.add(bytes("b")));
+        Assertions.assertFalse(distinct.add(bytes("a")));
+        Assertions.assertTrue(distinct.add(bytes("c"))); // evicts "a", the oldest key.
+        Assertions.assertTrue(distinct.add(bytes("a")));
+        Assertions.assertFalse(distinct.add(bytes("c")));
+        Assertions.assertEquals(2, distinct.duplicateItemsTotal());
+    }
+
+    @Test
+    void shouldBehaveAsInsertionOrderedSetGivenRandomHashes() {
+        final int capacity = 1000;
+        final DistinctItems.HashWindow window = new DistinctItems.HashWindow(capacity);
+        final Map<Long, Boolean> expected = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        final Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // a small range of hashes, including zero, so that many of them are duplicates, evicted and probed.
+            final long hash = random.nextInt(3000) - 1000;
+            Assertions.assertEquals(expected.put(hash, Boolean.TRUE) == null, window.add(hash), "hash " + hash + " at " + i);
+        }
+    }
+
+    private static byte[] bytes(final String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
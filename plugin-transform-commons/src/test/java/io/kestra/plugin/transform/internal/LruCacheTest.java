@@ -0,0 +1,30 @@
+package io.kestra.plugin.transform.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LruCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedValuesGivenFullCache() {
+        final AtomicInteger loads = new AtomicInteger();
+        final LruCache<String> cache = new LruCache<>(2, key -> {
+            loads.incrementAndGet();
+            return key + "!";
+        });
+
+        Assertions.assertEquals("a!", cache.get("a"));
+        cache.get("b");
+        cache.get("a");
+        cache.get("c"); // evicts "b", the least recently used.
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(3, loads.get());
+
+        cache.get("a");
+        Assertions.assertEquals(3, loads.get());
+        cache.get("b");
+        Assertions.assertEquals(4, loads.get());
+    }
+}
@@ -10,7 +10,12 @@ import java.util.Map;
 public interface GrokInterface {
 
     @PluginProperty
-    @Schema(title = "The Grok pattern to match.")
+    @Schema(
+        title = "The Grok pattern to match.",
+        description = "A captured value can be converted by suffixing its semantic with a type, e.g. `%{NUMBER:bytes:long}`. " +
+            "The `timestamp` type parses ISO-8601, HTTP, RFC 1123 and syslog dates, e.g. `%{HTTPDATE:ts:timestamp}`, " +
+            "or any `DateTimeFormatter` pattern given after the type, e.g. `%{DATA:ts:timestamp:yyyy/MM/dd HH:mm:ss}`."
+    )
     String getPattern();
 
     @PluginProperty
@@ -41,4 +46,61 @@ public interface GrokInterface {
         description = "The first successful match by grok will result in the task being finished. Set to `false` if you want the task to try all configured patterns."
     )
     boolean isBreakOnFirstMatch();
+
+    @PluginProperty
+    @Schema(
+        title = "The names of the captured fields to keep.",
+        description = "By default, all named captures are kept. When set, the other named groups are compiled as non-capturing groups, " +
+            "which avoids extracting and converting values that are not used."
+    )
+    List<String> getFields();
+
+    @PluginProperty
+    @Schema(
+        title = "If `true`, the patterns must match the whole text.",
+        description = "By default, a pattern is searched anywhere within the text, which requires trying it at every offset before a text fails to match. " +
+            "Anchored patterns are only tried from the start of the text and must match until its end, so a non-matching text fails after a single attempt."
+    )
+    boolean isAnchored();
+
+    @PluginProperty
+    @Schema(
+        title = "The patterns to anchor, when `anchored` is `false`.",
+        description = "Each value must be one of the configured patterns, as written in `pattern` or `patterns`."
+    )
+    List<String> getAnchoredPatterns();
+
+    @PluginProperty
+    @Schema(
+        title = "The order in which the patterns are tried.",
+        description = """
+            - `DECLARED`: the patterns are tried in the configured order.
+            - `ADAPTIVE`: the patterns are tried by decreasing number of matches, as observed during the current and previous runs of the task, recent matches weighing more than older ones. \
+            The patterns must be mutually exclusive, i.e. a text must match at most one of them, and `breakOnFirstMatch` must be `true`.             Only supported by `TransformItems`: `TransformValue` matches a single value, so there is no order to learn within a run.
+            """
+    )
+    MatchOrder getMatchOrder();
+
+    @PluginProperty
+    @Schema(
+        title = "If `true`, the patterns that don't need backtracking are matched in linear time.",
+        description = "Patterns using only a regular subset of the regex syntax, e.g. no lookaround, backreference or possessive quantifier, " +
+            "are matched by a linear-time engine instead of the backtracking one, so that a text can't make them match in exponential time. " +
+            "Both engines capture the same values for the bundled patterns; use the `Profile` task to see which patterns are matched in linear time."
+    )
+    boolean isLinearMatching();
+
+    @PluginProperty
+    @Schema(
+        title = "The charset in which the text is matched.",
+        description = "The patterns are compiled for this charset, and the text is encoded once in it, so that only the captured values are decoded. " +
+            "Use a single-byte charset, e.g. `ISO-8859-1` or `windows-1252`, for logs produced in these charsets. Only ASCII-compatible charsets are supported. " +
+            "A text containing characters that can't be encoded in this charset fails, see `onError` for `TransformItems`."
+    )
+    String getCharset();
+
+    enum MatchOrder {
+        DECLARED,
+        ADAPTIVE
+    }
 }
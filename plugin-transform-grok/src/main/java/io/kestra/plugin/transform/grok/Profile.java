@@ -0,0 +1,303 @@
+package io.kestra.plugin.transform.grok;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.tasks.Output;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.transform.grok.pattern.GrokMatcher;
+import io.kestra.plugin.transform.internal.CompressedInputStreams;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Profile the cost of Grok patterns on a sample of text items.",
+    description = """
+        The `Profile` task tries each configured pattern against the first lines of a file, and reports for each pattern \
+        its hit ratio, the time spent by successful and failed matches, the slowest lines, and the size of the compiled expression.
+        The times only cover matching the text, not extracting and converting the captured values.
+        Use it to decide which patterns to reorder, anchor, or rewrite.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Profile the patterns of a multi-pattern configuration on the first 10,000 lines of a log file.",
+            full = false,
+            code = """
+                id: grok_profile
+                namespace: myteam
+
+                tasks:
+                - id: profile
+                  type: io.kestra.plugin.transform.grok.Profile
+                  patterns:
+                    - "%{SYSLOGLINE}"
+                    - "%{COMMONAPACHELOG}"
+                  from: "{{ outputs.download.uri }}"
+                  maxLines: 10000
+                """
+        )
+    }
+)
+public class Profile extends Transform implements GrokInterface, RunnableTask<Output> {
+
+    @Schema(
+        title = "The file to be profiled.",
+        description = "Must be a `kestra://` internal storage URI. Gzip compressed files are decompressed on the fly."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String from;
+
+    @Schema(
+        title = "The maximum number of lines to profile."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Integer maxLines = 10_000;
+
+    @Schema(
+        title = "The number of slowest lines to report for each pattern."
+    )
+    @PluginProperty
+    @Min(0)
+    @Builder.Default
+    private Integer slowestLines = 5;
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        init(runContext);
+
+        final List<GrokMatcher> matchers = matchers();
+        final List<PatternStats> stats = new ArrayList<>(matchers.size());
+        for (int i = 0; i < matchers.size(); i++) {
+            stats.add(new PatternStats(slowestLines));
+        }
+
+        final URI uri = URI.create(runContext.render(this.from));
+        final long linesTotal;
+        try (InputStream is = CompressedInputStreams.decompressIfNeeded(runContext.storage().getFile(uri))) {
+            linesTotal = FileSerde.readAll(is, new TypeReference<String>() {
+                })
+                .take(maxLines)
+                .doOnNext(line -> {
+                    final byte[] bytes = encode(line);
+                    // each pattern is tried on each line, whatever `breakOnFirstMatch`, to profile all of them.
+                    for (int i = 0; i < matchers.size(); i++) {
+                        final long start = System.nanoTime();
+                        final boolean matched = matchers.get(i).matches(bytes);
+                        stats.get(i).record(line, matched, System.nanoTime() - start);
+                    }
+                })
+                .count()
+                .block();
+        }
+
+        final List<String> patterns = patterns();
+        final List<PatternProfile> profiles = new ArrayList<>(matchers.size());
+        for (int i = 0; i < matchers.size(); i++) {
+            profiles.add(stats.get(i).toProfile(patterns.get(i), matchers.get(i), linesTotal));
+        }
+
+        // output
+        return Output.builder().linesTotal(linesTotal).patterns(profiles).build();
+    }
+
+    /**
+     * The match times of a single pattern.
+     */
+    private static final class PatternStats {
+
+        // the times arrays grow with the lines read, as a file can have far fewer lines than `maxLines`.
+        private static final int INITIAL_CAPACITY = 256;
+
+        private long[] matchTimes = new long[INITIAL_CAPACITY];
+        private int matches;
+        private long[] failureTimes = new long[INITIAL_CAPACITY];
+        private int failures;
+        private final int slowestLines;
+        private final PriorityQueue<SlowLine> slowest;
+
+        PatternStats(final int slowestLines) {
+            this.slowestLines = slowestLines;
+            this.slowest = new PriorityQueue<>(Comparator.comparingLong(SlowLine::getTimeNanos));
+        }
+
+        void record(final String line, final boolean matched, final long nanos) {
+            if (matched) {
+                matchTimes = append(matchTimes, matches++, nanos);
+            } else {
+                failureTimes = append(failureTimes, failures++, nanos);
+            }
+
+            if (slowestLines == 0) {
+                return;
+            }
+            if (slowest.size() < slowestLines) {
+                slowest.add(new SlowLine(line, matched, nanos));
+            } else if (slowest.peek().getTimeNanos() < nanos) {
+                slowest.poll();
+                slowest.add(new SlowLine(line, matched, nanos));
+            }
+        }
+
+        PatternProfile toProfile(final String pattern, final GrokMatcher matcher, final long linesTotal) {
+            final List<SlowLine> slowestLines = new ArrayList<>(slowest);
+            slowestLines.sort(Comparator.comparingLong(SlowLine::getTimeNanos).reversed());
+            return PatternProfile.builder()
+                .pattern(pattern)
+                .hitRatio(linesTotal == 0 ? 0.0 : (double) matches / linesTotal)
+                .meanMatchTimeNanos(mean(matchTimes, matches))
+                .p99MatchTimeNanos(percentile(matchTimes, matches, 0.99))
+                .meanFailureTimeNanos(mean(failureTimes, failures))
+                .p99FailureTimeNanos(percentile(failureTimes, failures, 0.99))
+                .slowestLines(slowestLines)
+                .regexLength(matcher.expression().length())
+                .captureGroupCount(matcher.captureGroupCount())
+                .linear(matcher.isLinear())
+                .build();
+        }
+
+        private static long[] append(final long[] times, final int index, final long nanos) {
+            final long[] values = index < times.length ? times : Arrays.copyOf(times, times.length * 2);
+            values[index] = nanos;
+            return values;
+        }
+
+        private static Long mean(final long[] times, final int count) {
+            if (count == 0) return null;
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += times[i];
+            }
+            return total / count;
+        }
+
+        private static Long percentile(final long[] times, final int count, final double percentile) {
+            if (count == 0) return null;
+            final long[] sorted = Arrays.copyOf(times, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The number of lines profiled."
+        )
+        private final Long linesTotal;
+
+        @Schema(
+            title = "The profile of each pattern, in the configured order."
+        )
+        private final List<PatternProfile> patterns;
+    }
+
+    @Builder
+    @Getter
+    public static class PatternProfile {
+        @Schema(
+            title = "The pattern."
+        )
+        private final String pattern;
+
+        @Schema(
+            title = "The ratio of lines matched by the pattern."
+        )
+        private final Double hitRatio;
+
+        @Schema(
+            title = "The mean time of successful matches, in nanoseconds."
+        )
+        private final Long meanMatchTimeNanos;
+
+        @Schema(
+            title = "The 99th percentile time of successful matches, in nanoseconds."
+        )
+        private final Long p99MatchTimeNanos;
+
+        @Schema(
+            title = "The mean time of failed matches, in nanoseconds."
+        )
+        private final Long meanFailureTimeNanos;
+
+        @Schema(
+            title = "The 99th percentile time of failed matches, in nanoseconds."
+        )
+        private final Long p99FailureTimeNanos;
+
+        @Schema(
+            title = "The lines that took the longest to be matched, or to fail, slowest first."
+        )
+        private final List<SlowLine> slowestLines;
+
+        @Schema(
+            title = "The length of the compiled regex expression."
+        )
+        private final Integer regexLength;
+
+        @Schema(
+            title = "The number of named groups captured by the expression."
+        )
+        private final Integer captureGroupCount;
+
+        @Schema(
+            title = "Whether the pattern is matched in linear time, rather than by the backtracking regex engine."
+        )
+        private final Boolean linear;
+    }
+
+    @Getter
+    public static class SlowLine {
+        @Schema(
+            title = "The line."
+        )
+        private final String line;
+
+        @Schema(
+            title = "Whether the line was matched."
+        )
+        private final Boolean matched;
+
+        @Schema(
+            title = "The match time, in nanoseconds."
+        )
+        private final Long timeNanos;
+
+        SlowLine(final String line, final boolean matched, final long timeNanos) {
+            this.line = line;
+            this.matched = matched;
+            this.timeNanos = timeNanos;
+        }
+    }
+}
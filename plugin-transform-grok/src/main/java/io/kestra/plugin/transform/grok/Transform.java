@@ -1,7 +1,10 @@
 package io.kestra.plugin.transform.grok;
 
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.transform.grok.GrokInterface.MatchOrder;
+import io.kestra.plugin.transform.grok.internal.AdaptiveMatchOrder;
 import io.kestra.plugin.transform.grok.pattern.GrokMatcher;
 import io.kestra.plugin.transform.grok.pattern.GrokPatternCompiler;
 import io.kestra.plugin.transform.grok.pattern.GrokPatternResolver;
@@ -14,6 +17,13 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -21,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @SuperBuilder
@@ -44,13 +55,36 @@ public abstract class Transform extends Task {
     @Builder.Default
     private boolean breakOnFirstMatch = true;
 
+    private List<String> fields;
+
+    @Builder.Default
+    private boolean anchored = false;
+
+    private List<String> anchoredPatterns;
+
+    @Builder.Default
+    private MatchOrder matchOrder = MatchOrder.DECLARED;
+
+    @Builder.Default
+    private boolean linearMatching = false;
+
+    @Builder.Default
+    private String charset = StandardCharsets.UTF_8.name();
+
+    @Getter(AccessLevel.PRIVATE)
+    private Charset textCharset;
+
     @Getter(AccessLevel.PRIVATE)
     private GrokPatternCompiler compiler;
 
     @Getter(AccessLevel.PRIVATE)
     private List<GrokMatcher> grokMatchers;
 
+    @Getter(AccessLevel.PRIVATE)
+    private AdaptiveMatchOrder adaptiveMatchOrder;
+
     public void init(final RunContext runContext) {
+        this.textCharset = charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8;
 
         // create compiler
         this.compiler = new GrokPatternCompiler(
@@ -59,14 +93,93 @@ public abstract class Transform extends Task {
                 patternDefinitions(),
                 patternsDir(runContext)
             ),
-            isNamedCapturesOnly()
+            isNamedCapturesOnly(),
+            isLinearMatching(),
+            fields != null && !fields.isEmpty() ? Set.copyOf(fields) : null,
+            textCharset
         );
 
         // compile all patterns
-        this.grokMatchers = patterns().stream().map(compiler::compile).toList();
+        this.grokMatchers = patterns().stream().map(pattern -> compiler.compile(pattern, isAnchored(pattern))).toList();
+
+        if (matchOrder == MatchOrder.ADAPTIVE) {
+            if (!supportsAdaptiveMatchOrder()) {
+                runContext.logger().warn("The `ADAPTIVE` match order is ignored as the task matches a single value");
+            } else if (isBreakOnFirstMatch()) {
+                this.adaptiveMatchOrder = AdaptiveMatchOrder.load(runContext, getId(), patterns());
+            } else {
+                runContext.logger().warn("The `ADAPTIVE` match order is ignored as `breakOnFirstMatch` is `false`");
+            }
+        }
+    }
+
+    /**
+     * Checks whether the pattern order can be learned by this task, i.e. whether it matches enough texts per run
+     * to amortize loading and persisting the learned order.
+     *
+     * @return {@code true} if the {@code ADAPTIVE} match order is supported.
+     */
+    protected boolean supportsAdaptiveMatchOrder() {
+        return true;
+    }
+
+    /**
+     * Persists the pattern order learned during this run, if the match order is adaptive.
+     *
+     * @param runContext the {@link RunContext}.
+     */
+    public void saveMatchOrder(final RunContext runContext) throws IOException {
+        if (adaptiveMatchOrder != null) {
+            runContext.metric(Counter.of("match.attempts", adaptiveMatchOrder.attempts()));
+            adaptiveMatchOrder.save();
+        }
+    }
+
+    /**
+     * Encodes the given text in the configured charset.
+     * <p>
+     * UTF-8 can encode any well-formed text, so it is encoded directly. Other charsets report the characters they
+     * can't map instead of replacing them, so that such a text fails rather than being matched with {@code ?} in
+     * place of these characters.
+     *
+     * @param text the text to match.
+     * @return the text bytes.
+     * @throws IllegalArgumentException if the text can't be encoded in the configured charset.
+     */
+    public byte[] encode(final String text) {
+        if (StandardCharsets.UTF_8.equals(textCharset)) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        try {
+            final ByteBuffer buffer = textCharset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .encode(CharBuffer.wrap(text));
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("The text can't be encoded in charset '" + textCharset.name() + "': " + text, e);
+        }
     }
 
     public Map<String, Object> matches(final byte[] bytes) {
+        final Map<String, Object> captured = captures(bytes);
+        return captured != null ? captured : new HashMap<>();
+    }
+
+    /**
+     * Matches the configured patterns against the given bytes.
+     *
+     * @param bytes the text bytes to match.
+     * @return a {@code Map} that contains all named captured, or {@code null} if no pattern matched.
+     */
+    public Map<String, Object> captures(final byte[] bytes) {
+        if (adaptiveMatchOrder != null) {
+            return capturesAdaptive(bytes);
+        }
+
         // match patterns
         final List<Map<String, Object>> allNamedCaptured = new ArrayList<>(grokMatchers.size());
         for (GrokMatcher matcher : grokMatchers) {
@@ -76,6 +189,9 @@ public abstract class Transform extends Task {
                 if (isBreakOnFirstMatch()) break;
             }
         }
+        if (allNamedCaptured.isEmpty()) {
+            return null;
+        }
         // merge all named captured
         Map<String, Object> mergedValues = new HashMap<>();
         for (Map<String, Object> namedCaptured : allNamedCaptured) {
@@ -84,6 +200,22 @@ public abstract class Transform extends Task {
         return mergedValues;
     }
 
+    private boolean isAnchored(final String pattern) {
+        return anchored || (anchoredPatterns != null && anchoredPatterns.contains(pattern));
+    }
+
+    private Map<String, Object> capturesAdaptive(final byte[] bytes) {
+        for (int index : adaptiveMatchOrder.order()) {
+            adaptiveMatchOrder.onAttempt();
+            final Map<String, Object> captured = grokMatchers.get(index).captures(bytes);
+            if (captured != null) {
+                adaptiveMatchOrder.onMatch(index);
+                return captured;
+            }
+        }
+        return null;
+    }
+
     private Map<String, String> patternDefinitions() {
         return Optional.ofNullable(patternDefinitions).orElse(Collections.emptyMap());
     }
@@ -98,7 +230,16 @@ public abstract class Transform extends Task {
             .collect(Collectors.toList());
     }
 
-    private List<String> patterns() {
+    /**
+     * Gets the compiled patterns, in the configured order.
+     *
+     * @return the list of {@link GrokMatcher}.
+     */
+    List<GrokMatcher> matchers() {
+        return grokMatchers;
+    }
+
+    List<String> patterns() {
         if (pattern != null) return List.of(pattern);
 
         if (patterns == null || patterns.isEmpty()) {
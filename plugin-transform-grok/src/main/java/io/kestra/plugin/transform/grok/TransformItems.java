@@ -1,31 +1,21 @@
 package io.kestra.plugin.transform.grok;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
-import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.tasks.Output;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
-import io.kestra.core.serializers.FileSerde;
-import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.grok.internal.TextItemsTransformer;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import reactor.core.publisher.Flux;
 
-import java.io.InputStream;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Map;
+import java.util.List;
 
 @SuperBuilder
 @ToString
@@ -70,20 +60,58 @@ import java.util.Map;
                   interval: PT30S
                   maxRecords: 5
                 """
+        ),
+        @Example(
+            title = "Parse all hourly log shards stored as namespace files, four files at a time, into one file per shard.",
+            full = false,
+            code = """
+                id: grok
+                namespace: myteam
+
+                tasks:
+                - id: grok
+                  type: io.kestra.plugin.transform.grok.TransformItems
+                  pattern: "%{TIMESTAMP_ISO8601:logdate} %{LOGLEVEL:loglevel} %{GREEDYDATA:message}"
+                  from: "logs/**/*.ion"
+                  maxConcurrency: 4
+                  mergeOutputs: false
+                """
         )
     }
 )
-public class TransformItems extends Transform implements GrokInterface, RunnableTask<Output> {
+public class TransformItems extends Transform implements GrokInterface, TransformItemsInterface, RunnableTask<Output> {
+
+    private Object from;
+
+    @Builder.Default
+    private Integer maxConcurrency = 4;
+
+    @Builder.Default
+    private boolean mergeOutputs = true;
+
+    @Builder.Default
+    private OnError onError = OnError.FAIL;
 
-    private static final ObjectMapper ION_OBJECT_MAPPER = JacksonMapper.ofIon();
+    private Double maxErrorRatio;
 
-    @Schema(
-        title = "The file to be transformed.",
-        description = "Must be a `kestra://` internal storage URI."
-    )
-    @PluginProperty(dynamic = true)
-    @NotNull
-    private String from;
+    @Builder.Default
+    private OnUnmatched onUnmatched = OnUnmatched.KEEP;
+
+    private Integer checkpointInterval;
+
+    private List<String> distinctBy;
+
+    @Builder.Default
+    private DistinctMode distinctMode = DistinctMode.EXACT;
+
+    @Builder.Default
+    private Integer distinctWindow = 100_000;
+
+    @Builder.Default
+    private Long expectedDistinctItems = 1_000_000L;
+
+    @Builder.Default
+    private Double falsePositiveRate = 0.001;
 
     /**
      * {@inheritDoc}
@@ -92,38 +120,40 @@ public class TransformItems extends Transform implements GrokInterface, Runnable
     public Output run(RunContext runContext) throws Exception {
         init(runContext);
 
-        String from = runContext.render(this.from);
-
-        URI objectURI = new URI(from);
-        try (InputStream is = runContext.storage().getFile(objectURI);) {
-            Flux<String> flux = FileSerde.readAll(is, new TypeReference<String>() {
-            });
-            final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
-            try {
-                // transform
-                Flux<Map<String, Object>> values = flux.map(data -> matches(data.getBytes(StandardCharsets.UTF_8)));
-
-                Long processedItemsTotal = FileSerde.writeAll(Files.newOutputStream(ouputFilePath), values).block();
+        final TextItemsTransformer.Result result = new TextItemsTransformer(this)
+            .run(runContext, data -> captures(encode(data)));
+        saveMatchOrder(runContext);
 
-                URI uri = runContext.storage().putFile(ouputFilePath.toFile());
-
-                // output
-                return Output
+        // output
+        return Output
+            .builder()
+            .uri(result.uri())
+            .processedItemsTotal(result.processedItemsTotal())
+            .failedItemsTotal(result.failedItemsTotal())
+            .errorsUri(result.errorsUri())
+            .matchedItemsTotal(result.matchedItemsTotal())
+            .unmatchedItemsTotal(result.unmatchedItemsTotal())
+            .unmatchedUri(result.unmatchedUri())
+            .duplicateItemsTotal(result.duplicateItemsTotal())
+            .files(result.files().stream()
+                .map(file -> FileOutput
                     .builder()
-                    .uri(uri)
-                    .processedItemsTotal(processedItemsTotal)
-                    .build();
-            } finally {
-                Files.deleteIfExists(ouputFilePath); // ensure temp file is deleted in case of error
-            }
-        }
+                    .from(file.from())
+                    .uri(file.uri())
+                    .processedItemsTotal(file.processedItemsTotal())
+                    .build()
+                )
+                .toList()
+            )
+            .build();
     }
 
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
-            title = "The transformed file URI."
+            title = "The transformed file URI.",
+            description = "Only set when a single file is transformed, or when `mergeOutputs` is `true`."
         )
         private final URI uri;
 
@@ -131,5 +161,64 @@ public class TransformItems extends Transform implements GrokInterface, Runnable
             title = "The total number of items that was processed by the task."
         )
         private final Long processedItemsTotal;
+
+        @Schema(
+            title = "The total number of items that failed to be transformed.",
+            description = "Only set when `onError` is `SKIP` or `ROUTE`."
+        )
+        private final Long failedItemsTotal;
+
+        @Schema(
+            title = "The URI of the file containing the items that failed to be transformed, along with their error message.",
+            description = "Only set when `onError` is `ROUTE`."
+        )
+        private final URI errorsUri;
+
+        @Schema(
+            title = "The total number of items that matched at least one pattern."
+        )
+        private final Long matchedItemsTotal;
+
+        @Schema(
+            title = "The total number of items that matched none of the patterns."
+        )
+        private final Long unmatchedItemsTotal;
+
+        @Schema(
+            title = "The URI of the file containing the raw items that matched none of the patterns.",
+            description = "Only set when `onUnmatched` is `ROUTE`."
+        )
+        private final URI unmatchedUri;
+
+        @Schema(
+            title = "The total number of items dropped as duplicates.",
+            description = "Only set when `distinctBy` is set."
+        )
+        private final Long duplicateItemsTotal;
+
+        @Schema(
+            title = "The transformation result for each input file."
+        )
+        private final List<FileOutput> files;
+    }
+
+    @Builder
+    @Getter
+    public static class FileOutput {
+        @Schema(
+            title = "The input file URI."
+        )
+        private final URI from;
+
+        @Schema(
+            title = "The transformed file URI.",
+            description = "Only set when `mergeOutputs` is `false`."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "The number of items that was processed for this file."
+        )
+        private final Long processedItemsTotal;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package io.kestra.plugin.transform.grok;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.plugin.transform.TransformFilesInterface;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * The properties of the tasks parsing the text items of one or more files.
+ */
+public interface TransformItemsInterface extends TransformFilesInterface {
+
+    @PluginProperty
+    @Schema(
+        title = "The policy to apply to the items that are not matched.",
+        description = """
+            - `KEEP`: an empty item is written to the output.
+            - `DROP`: the item is dropped from the output.
+            - `ROUTE`: the item is dropped from the output and its raw text is written to the `unmatchedUri` file.
+            """
+    )
+    @NotNull
+    OnUnmatched getOnUnmatched();
+
+    @PluginProperty
+    @Schema(
+        title = "The number of input items between two checkpoints.",
+        description = """
+            When set, the transformed items are flushed to the internal storage every `checkpointInterval` items, \
+            and the progress is recorded in the KV store of the flow namespace.
+            If the task run is restarted, e.g. after a worker failure, the transformation resumes from the last checkpoint instead of starting over.
+            Only the transformed items are checkpointed, so that `checkpointInterval` can't be combined with `distinctBy`, \
+            nor with the `ROUTE` policy of `onError` or `onUnmatched`. The item counts of a resumed task run, \
+            and the `maxErrorRatio` check, only account for the items transformed since the last checkpoint.
+            """
+    )
+    @Min(1)
+    Integer getCheckpointInterval();
+
+    @PluginProperty(dynamic = true)
+    @Schema(
+        title = "The names of the captured fields identifying an item, to drop the items identified by fields already seen.",
+        description = "Duplicates are dropped while the items are read, across all input files, before being written. " +
+            "The files are then transformed one at a time, in the order in which they were given, whatever `maxConcurrency`, " +
+            "so that the first occurrence of an item is always the one kept. " +
+            "Unmatched items are never considered as duplicates. Can't be combined with `checkpointInterval`."
+    )
+    List<String> getDistinctBy();
+
+    enum OnUnmatched {
+        KEEP,
+        DROP,
+        ROUTE
+    }
+}
@@ -8,7 +8,9 @@ import io.kestra.core.models.tasks.Output;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.internal.LargeValues;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -17,7 +19,7 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
 import java.util.Map;
 
 @SuperBuilder
@@ -81,6 +83,15 @@ public class TransformValue extends Transform implements GrokInterface, Runnable
     @NotNull
     private String from;
 
+    @Schema(
+        title = "The maximum size, in bytes, of a value returned inline in the task outputs.",
+        description = "A larger value is written to the internal storage, as a single ION value, and its URI is returned as `uri` instead of `value`, " +
+            "so that it does not bloat the execution context. By default, the value is always returned inline."
+    )
+    @PluginProperty
+    @Min(0)
+    private Integer maxInlineSize;
+
     /**
      * {@inheritDoc}
      **/
@@ -91,10 +102,20 @@ public class TransformValue extends Transform implements GrokInterface, Runnable
         String from = runContext.render(this.from);
 
         // transform
-        Map<String, Object> values = matches(from.getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> values = matches(encode(from));
+        saveMatchOrder(runContext);
 
         // output
-        return Output.builder().value(values).build();
+        final URI uri = LargeValues.storeIfLarger(runContext, values, maxInlineSize);
+        return Output.builder().value(uri == null ? values : null).uri(uri).build();
+    }
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    protected boolean supportsAdaptiveMatchOrder() {
+        return false;
     }
 
 
@@ -102,8 +123,15 @@ public class TransformValue extends Transform implements GrokInterface, Runnable
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
-            title = "The transformed value."
+            title = "The transformed value.",
+            description = "Not set when the value is larger than `maxInlineSize`."
         )
         private final Map<String, Object> value;
+
+        @Schema(
+            title = "The URI of the file containing the transformed value.",
+            description = "Only set when the value is larger than `maxInlineSize`."
+        )
+        private final URI uri;
     }
 }
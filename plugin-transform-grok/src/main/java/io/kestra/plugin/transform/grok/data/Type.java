@@ -1,10 +1,12 @@
 package io.kestra.plugin.transform.grok.data;
 
+import io.kestra.plugin.transform.grok.data.internal.TimestampParser;
 import io.kestra.plugin.transform.grok.data.internal.TypeConverter;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -17,7 +19,8 @@ public enum Type {
     DOUBLE(Double.class),
     BOOLEAN(Boolean.class),
     STRING(String.class),
-    DURATION(Duration.class);
+    DURATION(Duration.class),
+    TIMESTAMP(ZonedDateTime.class);
 
     private final Class<?> objectType;
 
@@ -37,6 +40,20 @@ public enum Type {
      * @return the converted object.
      */
     public Object convert(final Object o) {
+        return convert(o, null);
+    }
+
+    /**
+     * Converts the specified object to this type.
+     *
+     * @param o      the object to be converted.
+     * @param format the format of the object, only used by {@link #TIMESTAMP}, or {@code null} to detect a common format.
+     * @return the converted object.
+     */
+    public Object convert(final Object o, final String format) {
+        if (this == TIMESTAMP) {
+            return o == null ? null : TimestampParser.parse(o.toString(), format);
+        }
         return TypeConverter.newForType(objectType).convertValue(o);
     }
 
@@ -0,0 +1,308 @@
+package io.kestra.plugin.transform.grok.data.internal;
+
+import io.kestra.plugin.transform.internal.LruCache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Locale;
+
+/**
+ * Parses captured text into {@link ZonedDateTime}.
+ * <p>
+ * The most common log formats are parsed by hand, without going through a {@link DateTimeFormatter}:
+ * <ul>
+ *     <li>ISO-8601, e.g. {@code 2024-01-15T08:30:45.123+02:00} ({@code TIMESTAMP_ISO8601}).</li>
+ *     <li>Apache/HTTP logs, e.g. {@code 10/Oct/2000:13:55:36 -0700} ({@code HTTPDATE}).</li>
+ *     <li>RFC 1123, e.g. {@code Tue, 15 Nov 1994 08:12:31 GMT}.</li>
+ *     <li>Syslog, e.g. {@code Jan  5 14:03:22} ({@code SYSLOGTIMESTAMP}), in the current year of the given {@link Clock}.</li>
+ * </ul>
+ * Text without a zone is considered to be in UTC. Custom formats are parsed with {@link DateTimeFormatter}
+ * instances that are cached by pattern, holding the {@value LruCache#DEFAULT_CAPACITY} most recently used ones.
+ */
+public final class TimestampParser {
+
+    private static final LruCache<DateTimeFormatter> FORMATTERS = new LruCache<>(
+        LruCache.DEFAULT_CAPACITY,
+        pattern -> DateTimeFormatter.ofPattern(pattern, Locale.ROOT)
+    );
+
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+
+    private final String text;
+
+    private final Clock clock;
+
+    private int position;
+
+    private TimestampParser(final String text, final Clock clock) {
+        this.text = text;
+        this.clock = clock;
+    }
+
+    /**
+     * Parses the given text into a {@link ZonedDateTime}.
+     *
+     * @param text   the text to parse.
+     * @param format the {@link DateTimeFormatter} pattern of the text, or {@code null} to detect a common format.
+     * @return the parsed timestamp.
+     * @throws IllegalArgumentException if the text cannot be parsed.
+     */
+    public static ZonedDateTime parse(final String text, final String format) {
+        return parse(text, format, Clock.systemUTC());
+    }
+
+    /**
+     * Parses the given text into a {@link ZonedDateTime}.
+     *
+     * @param text   the text to parse.
+     * @param format the {@link DateTimeFormatter} pattern of the text, or {@code null} to detect a common format.
+     * @param clock  the {@link Clock} giving the year of the formats without one, e.g. syslog timestamps.
+     * @return the parsed timestamp.
+     * @throws IllegalArgumentException if the text cannot be parsed.
+     */
+    public static ZonedDateTime parse(final String text, final String format, final Clock clock) {
+        if (format != null) {
+            return parse(text, FORMATTERS.get(format));
+        }
+
+        ZonedDateTime parsed = new TimestampParser(text, clock).parseIso();
+        if (parsed == null) parsed = new TimestampParser(text, clock).parseHttpDate();
+        if (parsed == null) parsed = new TimestampParser(text, clock).parseRfc1123();
+        if (parsed == null) parsed = new TimestampParser(text, clock).parseSyslog();
+        if (parsed == null) {
+            throw new IllegalArgumentException("Cannot parse '" + text + "' as a timestamp, a format must be specified");
+        }
+        return parsed;
+    }
+
+    private static ZonedDateTime parse(final String text, final DateTimeFormatter formatter) {
+        final TemporalAccessor parsed;
+        try {
+            parsed = formatter.parse(text);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot parse '" + text + "' as a timestamp: " + e.getMessage(), e);
+        }
+
+        final ZoneId zone = parsed.query(TemporalQueries.zone());
+        final LocalDate date = parsed.query(TemporalQueries.localDate());
+        final LocalTime time = parsed.query(TemporalQueries.localTime());
+        if (date == null && parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return ZonedDateTime.ofInstant(Instant.from(parsed), zone != null ? zone : ZoneOffset.UTC);
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Cannot parse '" + text + "' as a timestamp: the format has no date");
+        }
+        return ZonedDateTime.of(date, time != null ? time : LocalTime.MIDNIGHT, zone != null ? zone : ZoneOffset.UTC);
+    }
+
+    // e.g. 2024-01-15T08:30:45.123+02:00, 2024-01-15 08:30:45,123, 2024-01-15
+    private ZonedDateTime parseIso() {
+        final int year = digits(4, 4);
+        if (year < 0 || !accept('-')) return null;
+        final int month = digits(1, 2);
+        if (month < 0 || !accept('-')) return null;
+        final int day = digits(1, 2);
+        if (day < 0) return null;
+        if (atEnd()) {
+            return of(year, month, day, 0, 0, 0, 0, ZoneOffset.UTC);
+        }
+        if (!accept('T') && !accept(' ')) return null;
+
+        final int hour = digits(1, 2);
+        if (hour < 0) return null;
+        accept(':');
+        final int minute = digits(2, 2);
+        if (minute < 0) return null;
+        int second = 0;
+        int nanos = 0;
+        if (accept(':') || isDigit()) {
+            second = digits(1, 2);
+            if (second < 0) return null;
+            if (accept('.') || accept(',')) {
+                nanos = fraction();
+                if (nanos < 0) return null;
+            }
+        }
+        final ZoneOffset offset = offset();
+        if (!atEnd()) return null;
+        return of(year, month, day, hour, minute, second, nanos, offset != null ? offset : ZoneOffset.UTC);
+    }
+
+    // e.g. 10/Oct/2000:13:55:36 -0700
+    private ZonedDateTime parseHttpDate() {
+        final int day = digits(1, 2);
+        if (day < 0 || !accept('/')) return null;
+        final int month = month();
+        if (month < 0 || !accept('/')) return null;
+        final int year = digits(4, 4);
+        if (year < 0 || !accept(':')) return null;
+        return time(year, month, day);
+    }
+
+    // e.g. Tue, 15 Nov 1994 08:12:31 GMT
+    private ZonedDateTime parseRfc1123() {
+        if (isLetter()) {
+            while (isLetter()) position++;
+            if (!accept(',')) return null;
+            spaces();
+        }
+        final int day = digits(1, 2);
+        if (day < 0 || !accept(' ')) return null;
+        final int month = month();
+        if (month < 0 || !accept(' ')) return null;
+        final int year = digits(4, 4);
+        if (year < 0 || !accept(' ')) return null;
+        return time(year, month, day);
+    }
+
+    // e.g. Jan  5 14:03:22
+    private ZonedDateTime parseSyslog() {
+        final int month = month();
+        if (month < 0 || spaces() == 0) return null;
+        final int day = digits(1, 2);
+        if (day < 0 || !accept(' ')) return null;
+
+        final ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+        final ZonedDateTime parsed = time(now.getYear(), month, day);
+        // a line logged in December and read in January belongs to the previous year.
+        if (parsed != null && parsed.isAfter(now.plusDays(1))) {
+            return parsed.minusYears(1);
+        }
+        return parsed;
+    }
+
+    // e.g. 13:55:36 -0700, 13:55:36.123, 08:12:31 GMT
+    private ZonedDateTime time(final int year, final int month, final int day) {
+        final int hour = digits(1, 2);
+        if (hour < 0 || !accept(':')) return null;
+        final int minute = digits(2, 2);
+        if (minute < 0 || !accept(':')) return null;
+        final int second = digits(1, 2);
+        if (second < 0) return null;
+        int nanos = 0;
+        if (accept('.') || accept(',')) {
+            nanos = fraction();
+            if (nanos < 0) return null;
+        }
+        ZoneOffset offset = null;
+        if (spaces() > 0 || !atEnd()) {
+            offset = offset();
+            if (offset == null) return null;
+        }
+        if (!atEnd()) return null;
+        return of(year, month, day, hour, minute, second, nanos, offset != null ? offset : ZoneOffset.UTC);
+    }
+
+    private ZoneOffset offset() {
+        if (accept('Z') || accept("UTC") || accept("GMT") || accept("UT")) {
+            return ZoneOffset.UTC;
+        }
+        final int sign = accept('+') ? 1 : accept('-') ? -1 : 0;
+        if (sign == 0) return null;
+        final int hours = digits(1, 2);
+        if (hours < 0) return null;
+        accept(':');
+        final int minutes = isDigit() ? digits(2, 2) : 0;
+        if (minutes < 0) return null;
+        try {
+            return ZoneOffset.ofHoursMinutes(sign * hours, sign * minutes);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private int month() {
+        final int start = position;
+        while (isLetter()) position++;
+        if (position - start < 3) return -1;
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (text.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int fraction() {
+        int nanos = 0;
+        int count = 0;
+        while (isDigit()) {
+            if (count < 9) {
+                nanos = nanos * 10 + (text.charAt(position) - '0');
+            }
+            count++;
+            position++;
+        }
+        if (count == 0) return -1;
+        for (int i = count; i < 9; i++) {
+            nanos *= 10;
+        }
+        return nanos;
+    }
+
+    private int digits(final int min, final int max) {
+        int value = 0;
+        int count = 0;
+        while (count < max && isDigit()) {
+            value = value * 10 + (text.charAt(position++) - '0');
+            count++;
+        }
+        return count >= min ? value : -1;
+    }
+
+    private int spaces() {
+        final int start = position;
+        while (position < text.length() && text.charAt(position) == ' ') position++;
+        return position - start;
+    }
+
+    private boolean accept(final char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(final String s) {
+        if (text.startsWith(s, position)) {
+            position += s.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isDigit() {
+        return position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9';
+    }
+
+    private boolean isLetter() {
+        if (position >= text.length()) return false;
+        final char c = text.charAt(position);
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private boolean atEnd() {
+        return position == text.length();
+    }
+
+    private ZonedDateTime of(final int year, final int month, final int day,
+                             final int hour, final int minute, final int second, final int nanos,
+                             final ZoneOffset offset) {
+        try {
+            return ZonedDateTime.of(LocalDateTime.of(year, month, day, hour, minute, second, nanos), offset);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot parse '" + text + "' as a timestamp: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.kestra.plugin.transform.grok.dissect;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+public interface DissectInterface {
+
+    @PluginProperty
+    @Schema(
+        title = "The dissect pattern to match.",
+        description = """
+            The pattern is made of fields, e.g. `%{field}`, separated by literal delimiters. The supported field modifiers are:
+            - `%{field:type}`: converts the value to the given type, e.g. `INT`, `LONG`, `DOUBLE`, `BOOLEAN`, `DURATION`, or `TIMESTAMP`.
+            - `%{field:timestamp:format}`: parses the value as a timestamp of the given `DateTimeFormatter` pattern, e.g. `%{date:timestamp:yyyy-MM-dd}`.
+            - `%{}` or `%{?field}`: skips the value.
+            - `%{+field}`: appends the value to the field of the same name, using the `appendSeparator`.
+            - `%{field->}`: skips the repeated delimiters following the value, e.g. padding spaces.
+            """
+    )
+    @NotNull
+    String getPattern();
+
+    @PluginProperty
+    @Schema(title = "The separator used between the values appended to a same field.")
+    String getAppendSeparator();
+}
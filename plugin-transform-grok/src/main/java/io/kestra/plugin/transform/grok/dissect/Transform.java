@@ -0,0 +1,53 @@
+package io.kestra.plugin.transform.grok.dissect;
+
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.transform.grok.pattern.DissectMatcher;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class Transform extends Task {
+
+    private String pattern;
+
+    @Builder.Default
+    private String appendSeparator = "";
+
+    @Getter(AccessLevel.PRIVATE)
+    private DissectMatcher dissectMatcher;
+
+    public void init(final RunContext runContext) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Missing required configuration, `pattern` property must not be empty.");
+        }
+        this.dissectMatcher = new DissectMatcher(pattern, appendSeparator);
+    }
+
+    public Map<String, Object> matches(final byte[] bytes) {
+        final Map<String, Object> captured = captures(bytes);
+        return captured != null ? captured : new HashMap<>();
+    }
+
+    /**
+     * Matches the configured pattern against the given bytes.
+     *
+     * @param bytes the text bytes to match.
+     * @return a {@code Map} that contains all captured fields, or {@code null} if the pattern did not match.
+     */
+    public Map<String, Object> captures(final byte[] bytes) {
+        return dissectMatcher.captures(bytes);
+    }
+}
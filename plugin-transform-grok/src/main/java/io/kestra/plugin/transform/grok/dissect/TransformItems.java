@@ -0,0 +1,196 @@
+package io.kestra.plugin.transform.grok.dissect;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.tasks.Output;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.transform.grok.TransformItemsInterface;
+import io.kestra.plugin.transform.grok.internal.TextItemsTransformer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Parse delimited text and structure it using a dissect pattern.",
+    description = """
+        The `TransformItems` task is similar to the Logstash Dissect filter from the ELK stack.
+        Unlike Grok, it does not use regular expressions: fields are split on the literal delimiters of the pattern, \
+        which makes it much faster for strictly structured text such as access logs or firewall logs.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Parse firewall logs stored as namespace files, routing the lines that do not match the pattern.",
+            full = false,
+            code = """
+                id: dissect
+                namespace: myteam
+
+                tasks:
+                - id: dissect
+                  type: io.kestra.plugin.transform.grok.dissect.TransformItems
+                  pattern: "%{timestamp} %{+timestamp} %{+timestamp} %{host} %{action} src=%{src} dst=%{dst} port=%{port:int}"
+                  appendSeparator: " "
+                  from: "firewall/**/*.ion"
+                  onUnmatched: ROUTE
+                """
+        )
+    }
+)
+public class TransformItems extends Transform implements DissectInterface, TransformItemsInterface, RunnableTask<Output> {
+
+    private Object from;
+
+    @Builder.Default
+    private Integer maxConcurrency = 4;
+
+    @Builder.Default
+    private boolean mergeOutputs = true;
+
+    @Builder.Default
+    private OnError onError = OnError.FAIL;
+
+    private Double maxErrorRatio;
+
+    @Builder.Default
+    private OnUnmatched onUnmatched = OnUnmatched.KEEP;
+
+    private Integer checkpointInterval;
+
+    private List<String> distinctBy;
+
+    @Builder.Default
+    private DistinctMode distinctMode = DistinctMode.EXACT;
+
+    @Builder.Default
+    private Integer distinctWindow = 100_000;
+
+    @Builder.Default
+    private Long expectedDistinctItems = 1_000_000L;
+
+    @Builder.Default
+    private Double falsePositiveRate = 0.001;
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        init(runContext);
+
+        final TextItemsTransformer.Result result = new TextItemsTransformer(this)
+            .run(runContext, data -> captures(data.getBytes(StandardCharsets.UTF_8)));
+
+        // output
+        return Output
+            .builder()
+            .uri(result.uri())
+            .processedItemsTotal(result.processedItemsTotal())
+            .failedItemsTotal(result.failedItemsTotal())
+            .errorsUri(result.errorsUri())
+            .matchedItemsTotal(result.matchedItemsTotal())
+            .unmatchedItemsTotal(result.unmatchedItemsTotal())
+            .unmatchedUri(result.unmatchedUri())
+            .duplicateItemsTotal(result.duplicateItemsTotal())
+            .files(result.files().stream()
+                .map(file -> FileOutput
+                    .builder()
+                    .from(file.from())
+                    .uri(file.uri())
+                    .processedItemsTotal(file.processedItemsTotal())
+                    .build()
+                )
+                .toList()
+            )
+            .build();
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The transformed file URI.",
+            description = "Only set when a single file is transformed, or when `mergeOutputs` is `true`."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "The total number of items that was processed by the task."
+        )
+        private final Long processedItemsTotal;
+
+        @Schema(
+            title = "The total number of items that failed to be transformed.",
+            description = "Only set when `onError` is `SKIP` or `ROUTE`."
+        )
+        private final Long failedItemsTotal;
+
+        @Schema(
+            title = "The URI of the file containing the items that failed to be transformed, along with their error message.",
+            description = "Only set when `onError` is `ROUTE`."
+        )
+        private final URI errorsUri;
+
+        @Schema(
+            title = "The total number of items that matched the pattern."
+        )
+        private final Long matchedItemsTotal;
+
+        @Schema(
+            title = "The total number of items that did not match the pattern."
+        )
+        private final Long unmatchedItemsTotal;
+
+        @Schema(
+            title = "The URI of the file containing the raw items that did not match the pattern.",
+            description = "Only set when `onUnmatched` is `ROUTE`."
+        )
+        private final URI unmatchedUri;
+
+        @Schema(
+            title = "The total number of items dropped as duplicates.",
+            description = "Only set when `distinctBy` is set."
+        )
+        private final Long duplicateItemsTotal;
+
+        @Schema(
+            title = "The transformation result for each input file."
+        )
+        private final List<FileOutput> files;
+    }
+
+    @Builder
+    @Getter
+    public static class FileOutput {
+        @Schema(
+            title = "The input file URI."
+        )
+        private final URI from;
+
+        @Schema(
+            title = "The transformed file URI.",
+            description = "Only set when `mergeOutputs` is `false`."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "The number of items that was processed for this file."
+        )
+        private final Long processedItemsTotal;
+    }
+}
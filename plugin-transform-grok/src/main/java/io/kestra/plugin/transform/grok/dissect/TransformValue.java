@@ -0,0 +1,103 @@
+package io.kestra.plugin.transform.grok.dissect;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.tasks.Output;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.transform.internal.LargeValues;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Parse delimited text and structure it using a dissect pattern.",
+    description = """
+        The `TransformValue` task is similar to the Logstash Dissect filter from the ELK stack.
+        Unlike Grok, it does not use regular expressions: fields are split on the literal delimiters of the pattern, \
+        which makes it much faster for strictly structured text such as access logs or firewall logs.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Parse an access log line.",
+            full = true,
+            code = """
+                id: dissect
+                namespace: myteam
+
+                tasks:
+                - id: dissect
+                  type: io.kestra.plugin.transform.grok.dissect.TransformValue
+                  pattern: '%{clientip} %{ident} %{auth} [%{timestamp}] "%{verb} %{request} HTTP/%{httpversion}" %{status:int} %{bytes:long}'
+                  from: '127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] "GET /apache_pb.gif HTTP/1.0" 200 2326'
+                """
+        )
+    }
+)
+public class TransformValue extends Transform implements DissectInterface, RunnableTask<Output> {
+
+    @Schema(title = "The value to parse.")
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String from;
+
+    @Schema(
+        title = "The maximum size, in bytes, of a value returned inline in the task outputs.",
+        description = "A larger value is written to the internal storage, as a single ION value, and its URI is returned as `uri` instead of `value`, " +
+            "so that it does not bloat the execution context. By default, the value is always returned inline."
+    )
+    @PluginProperty
+    @Min(0)
+    private Integer maxInlineSize;
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        init(runContext);
+
+        String from = runContext.render(this.from);
+
+        // transform
+        Map<String, Object> values = matches(from.getBytes(StandardCharsets.UTF_8));
+
+        // output
+        final URI uri = LargeValues.storeIfLarger(runContext, values, maxInlineSize);
+        return Output.builder().value(uri == null ? values : null).uri(uri).build();
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The transformed value.",
+            description = "Not set when the value is larger than `maxInlineSize`."
+        )
+        private final Map<String, Object> value;
+
+        @Schema(
+            title = "The URI of the file containing the transformed value.",
+            description = "Only set when the value is larger than `maxInlineSize`."
+        )
+        private final URI uri;
+    }
+}
@@ -0,0 +1,203 @@
+package io.kestra.plugin.transform.grok.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Orders mutually exclusive patterns by decreasing number of hits, so that the most frequent pattern is tried first.
+ * <p>
+ * The order is recomputed every {@link #REORDER_INTERVAL} matches. The hits are persisted in the KV store of the
+ * flow namespace, so that the next runs of the task start with the learned order.
+ * <p>
+ * The hits are halved after each reordering, so that old matches weigh less than recent ones, and the order keeps
+ * adapting when the distribution of the texts changes. They are persisted as they are, merged with the hits recorded
+ * by concurrent runs since they were loaded.
+ */
+public final class AdaptiveMatchOrder {
+
+    /**
+     * The number of matches between two reorderings.
+     */
+    public static final int REORDER_INTERVAL = 1000;
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private static final String KEY_PREFIX = "grok_match_order_";
+
+    private static final Duration TTL = Duration.ofDays(30);
+
+    private final List<String> patterns;
+
+    private final AtomicLongArray hits;
+
+    private final long[] loaded;
+
+    private final AtomicLong matches = new AtomicLong();
+
+    private final AtomicLong attempts = new AtomicLong();
+
+    private final KVStore store;
+
+    private final String key;
+
+    private volatile int[] order;
+
+    /**
+     * Creates a new {@link AdaptiveMatchOrder} instance.
+     *
+     * @param patterns the patterns, in the declared order.
+     * @param hits     the initial number of hits of each pattern.
+     * @param store    the {@link KVStore} to persist the hits to, or {@code null}.
+     * @param key      the key of the persisted hits.
+     */
+    AdaptiveMatchOrder(final List<String> patterns, final long[] hits, final KVStore store, final String key) {
+        this.patterns = Objects.requireNonNull(patterns, "patterns can't be null");
+        this.hits = new AtomicLongArray(hits);
+        this.loaded = hits.clone();
+        this.store = store;
+        this.key = key;
+        this.order = computeOrder();
+    }
+
+    /**
+     * Creates the {@link AdaptiveMatchOrder} for the given task, starting from the hits persisted by its previous runs.
+     *
+     * @param runContext the {@link RunContext}.
+     * @param taskId     the task id.
+     * @param patterns   the patterns, in the declared order.
+     * @return a new {@link AdaptiveMatchOrder}.
+     */
+    public static AdaptiveMatchOrder load(final RunContext runContext, final String taskId, final List<String> patterns) {
+        if (!(runContext.getVariables().get("flow") instanceof Map<?, ?> flow) || flow.get("namespace") == null || flow.get("id") == null) {
+            runContext.logger().warn("The learned pattern order will not be persisted as the task is not running within a flow");
+            return new AdaptiveMatchOrder(patterns, new long[patterns.size()], null, null);
+        }
+
+        final KVStore store = runContext.namespaceKv(String.valueOf(flow.get("namespace")));
+        final String key = KEY_PREFIX + flow.get("id") + "_" + taskId;
+        long[] hits;
+        try {
+            hits = read(store, key, patterns);
+            runContext.logger().debug("Starting from the learned pattern order with hits: {}", Arrays.toString(hits));
+        } catch (Exception e) {
+            runContext.logger().warn("Failed to load the learned pattern order, starting from the declared order", e);
+            hits = new long[patterns.size()];
+        }
+        return new AdaptiveMatchOrder(patterns, hits, store, key);
+    }
+
+    /**
+     * Reads the persisted hits of each pattern. The hits are only reused as long as the patterns are unchanged.
+     *
+     * @return the persisted hits, or zeros if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    private static long[] read(final KVStore store, final String key, final List<String> patterns) throws IOException {
+        final long[] hits = new long[patterns.size()];
+        final Map<String, Object> persisted = store.getValue(key)
+            .map(KVValue::value)
+            .map(value -> OBJECT_MAPPER.convertValue(value, Map.class))
+            .orElse(null);
+        if (persisted != null && patterns.equals(persisted.get("patterns"))) {
+            final List<Number> persistedHits = (List<Number>) persisted.get("hits");
+            for (int i = 0; i < hits.length && i < persistedHits.size(); i++) {
+                hits[i] = persistedHits.get(i).longValue();
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Gets the indexes of the patterns, in the order in which they should be tried.
+     *
+     * @return the pattern indexes.
+     */
+    public int[] order() {
+        return order;
+    }
+
+    /**
+     * Records a match attempt.
+     */
+    public void onAttempt() {
+        attempts.incrementAndGet();
+    }
+
+    /**
+     * Records a match of the pattern at the given index.
+     *
+     * @param index the index of the pattern.
+     */
+    public void onMatch(final int index) {
+        hits.incrementAndGet(index);
+        if (matches.incrementAndGet() % REORDER_INTERVAL == 0) {
+            order = computeOrder();
+            decay();
+        }
+    }
+
+    /**
+     * Gets the number of match attempts.
+     *
+     * @return the number of attempts.
+     */
+    public long attempts() {
+        return attempts.get();
+    }
+
+    private int[] computeOrder() {
+        return IntStream.range(0, patterns.size())
+            .boxed()
+            .sorted(Comparator.<Integer>comparingLong(hits::get).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private void decay() {
+        for (int i = 0; i < hits.length(); i++) {
+            hits.updateAndGet(i, value -> value >> 1);
+        }
+    }
+
+    /**
+     * Gets the hits of each pattern, merged with the given hits persisted by concurrent runs,
+     * i.e. adding the hits they recorded since this run loaded its own.
+     *
+     * @param latest the hits currently persisted.
+     * @return the hits to persist.
+     */
+    long[] merge(final long[] latest) {
+        final long[] values = new long[hits.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = hits.get(i) + Math.max(0, latest[i] - loaded[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Persists the hits of each pattern.
+     */
+    public void save() throws IOException {
+        if (store == null) {
+            return;
+        }
+        final long[] merged = merge(read(store, key, patterns));
+        store.put(key, new KVValueAndMetadata(new KVMetadata(TTL), Map.of("patterns", patterns, "hits", merged)));
+    }
+}
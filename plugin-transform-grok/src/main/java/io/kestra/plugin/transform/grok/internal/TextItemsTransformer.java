@@ -0,0 +1,197 @@
+package io.kestra.plugin.transform.grok.internal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.grok.TransformItemsInterface;
+import io.kestra.plugin.transform.grok.TransformItemsInterface.OnUnmatched;
+import io.kestra.plugin.transform.internal.DistinctItems;
+import io.kestra.plugin.transform.internal.ItemErrors;
+import io.kestra.plugin.transform.internal.ItemFilesTransformer;
+import io.kestra.plugin.transform.internal.ItemFilesTransformer.FileResult;
+import io.kestra.plugin.transform.internal.ItemFilesTransformer.FileTransformation;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Transforms the text items of one or more files into structured items,
+ * as configured by a {@link TransformItemsInterface} task.
+ */
+public final class TextItemsTransformer {
+
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private final TransformItemsInterface task;
+
+    /**
+     * Creates a new {@link TextItemsTransformer} instance.
+     *
+     * @param task the task to run.
+     */
+    public TextItemsTransformer(final TransformItemsInterface task) {
+        this.task = Objects.requireNonNull(task, "task can't be null");
+    }
+
+    /**
+     * Transforms all the items of the input files.
+     *
+     * @param runContext the {@link RunContext}.
+     * @param captures   the function extracting the fields of a text item, returning {@code null} if the item is not matched.
+     * @return the {@link Result}.
+     */
+    public Result run(final RunContext runContext, final Function<String, Map<String, Object>> captures) throws Exception {
+        checkCheckpointInterval();
+        final List<String> distinctBy = renderDistinctBy(runContext);
+
+        final Path unmatchedFilePath = task.getOnUnmatched() == OnUnmatched.ROUTE ? runContext.workingDir().createTempFile(".ion") : null;
+        try (UnmatchedItems unmatched = new UnmatchedItems(unmatchedFilePath)) {
+            final ItemFilesTransformer.Result result;
+            try {
+                result = new ItemFilesTransformer(task, ".ion", FileSerde::writeAll).run(
+                    runContext,
+                    distinctBy != null,
+                    (from, index, is, errors, distinct) -> new TextFileTransformation(is, captures, errors, unmatched, distinctBy, distinct)
+                );
+            } finally {
+                runContext.metric(Counter.of("matched.items", unmatched.matchedItemsTotal()));
+                runContext.metric(Counter.of("unmatched.items", unmatched.unmatchedItemsTotal()));
+            }
+
+            URI unmatchedUri = null;
+            if (unmatchedFilePath != null) {
+                unmatched.close();
+                unmatchedUri = runContext.storage().putFile(unmatchedFilePath.toFile());
+            }
+
+            return new Result(
+                result.uri(),
+                result.processedItemsTotal(),
+                result.failedItemsTotal(),
+                result.errorsUri(),
+                unmatched.matchedItemsTotal(),
+                unmatched.unmatchedItemsTotal(),
+                unmatchedUri,
+                result.duplicateItemsTotal(),
+                result.files()
+            );
+        } finally {
+            if (unmatchedFilePath != null) {
+                Files.deleteIfExists(unmatchedFilePath);
+            }
+        }
+    }
+
+    private void checkCheckpointInterval() {
+        // the unmatched items are shared by all input files, so they can't be resumed.
+        if (task.getCheckpointInterval() != null && task.getOnUnmatched() == OnUnmatched.ROUTE) {
+            throw new IllegalArgumentException("`checkpointInterval` can't be combined with `onUnmatched: ROUTE`, as the routed items are not checkpointed");
+        }
+    }
+
+    private List<String> renderDistinctBy(final RunContext runContext) throws Exception {
+        if (task.getDistinctBy() == null) {
+            return null;
+        }
+        final List<String> fields = new ArrayList<>(task.getDistinctBy().size());
+        for (String field : task.getDistinctBy()) {
+            fields.add(runContext.render(field));
+        }
+        return fields;
+    }
+
+    private static byte[] distinctKey(final Map<String, Object> captured, final List<String> distinctBy) {
+        final List<Object> values = new ArrayList<>(distinctBy.size());
+        for (String field : distinctBy) {
+            values.add(captured.get(field));
+        }
+        try {
+            return JSON_OBJECT_MAPPER.writeValueAsBytes(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class TextFileTransformation implements FileTransformation<String> {
+
+        private final InputStream is;
+
+        private final Function<String, Map<String, Object>> transform;
+
+        private final ItemErrors errors;
+
+        TextFileTransformation(final InputStream is,
+                               final Function<String, Map<String, Object>> captures,
+                               final ItemErrors errors,
+                               final UnmatchedItems unmatched,
+                               final List<String> distinctBy,
+                               final DistinctItems distinct) {
+            this.is = is;
+            this.errors = errors;
+            this.transform = data -> {
+                final Map<String, Object> captured = captures.apply(data);
+                if (captured != null) {
+                    unmatched.onMatched();
+                    // duplicates are dropped before being written.
+                    if (distinct != null && !distinct.add(distinctKey(captured, distinctBy))) {
+                        return null;
+                    }
+                    return captured;
+                }
+                unmatched.onUnmatched(data);
+                return task.getOnUnmatched() == OnUnmatched.KEEP ? new HashMap<>() : null;
+            };
+        }
+
+        @Override
+        public Flux<String> items() {
+            return FileSerde.readAll(is, new TypeReference<String>() {
+            });
+        }
+
+        @Override
+        public Flux<Map<String, Object>> transform(final Flux<String> items) {
+            return errors != null ? errors.apply(items, transform) : items.mapNotNull(transform);
+        }
+    }
+
+    /**
+     * The result of a transformation.
+     *
+     * @param uri                 the URI of the transformed file, if the outputs were merged.
+     * @param processedItemsTotal the number of items written.
+     * @param failedItemsTotal    the number of items that failed to be transformed, if errors are not failing the task.
+     * @param errorsUri           the URI of the file containing the failed items, if routed.
+     * @param matchedItemsTotal   the number of items matched.
+     * @param unmatchedItemsTotal the number of items not matched.
+     * @param unmatchedUri        the URI of the file containing the unmatched items, if routed.
+     * @param duplicateItemsTotal the number of items dropped as duplicates, if deduplicated.
+     * @param files               the result for each input file.
+     */
+    public record Result(
+        URI uri,
+        long processedItemsTotal,
+        Long failedItemsTotal,
+        URI errorsUri,
+        long matchedItemsTotal,
+        long unmatchedItemsTotal,
+        URI unmatchedUri,
+        Long duplicateItemsTotal,
+        List<FileResult> files
+    ) {
+    }
+}
@@ -0,0 +1,79 @@
+package io.kestra.plugin.transform.grok.internal;
+
+import io.kestra.core.serializers.FileSerde;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the items matched by at least one pattern, and the items that matched none.
+ * If a routing file is given, the raw unmatched items are also written to it.
+ */
+public final class UnmatchedItems implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream routed;
+
+    private final AtomicLong matchedItemsTotal = new AtomicLong();
+
+    private final AtomicLong unmatchedItemsTotal = new AtomicLong();
+
+    /**
+     * Creates a new {@link UnmatchedItems} instance.
+     *
+     * @param routePath the file to write unmatched items to, or {@code null} to only count them.
+     */
+    public UnmatchedItems(final Path routePath) throws IOException {
+        this.routed = routePath != null ? new BufferedOutputStream(Files.newOutputStream(routePath), BUFFER_SIZE) : null;
+    }
+
+    /**
+     * Records an item that matched at least one pattern.
+     */
+    public void onMatched() {
+        matchedItemsTotal.incrementAndGet();
+    }
+
+    /**
+     * Records an item that matched no pattern.
+     *
+     * @param item the raw item.
+     */
+    public void onUnmatched(final String item) {
+        unmatchedItemsTotal.incrementAndGet();
+        if (routed != null) {
+            synchronized (routed) {
+                try {
+                    FileSerde.write(routed, item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    public long matchedItemsTotal() {
+        return matchedItemsTotal.get();
+    }
+
+    public long unmatchedItemsTotal() {
+        return unmatchedItemsTotal.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (routed != null) {
+            routed.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.kestra.plugin.transform.grok.pattern;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A bounded cache of the values captured for a single field, keyed by their raw bytes.
+ * <p>
+ * Fields such as a log level, an HTTP verb or a host name only take a handful of distinct values across millions
+ * of lines. Looking up the raw byte range of a capture before decoding it allows those fields to share a single
+ * {@code String} instance per distinct value, instead of allocating a new one for each line.
+ * <p>
+ * The cache is a direct-mapped table of {@link #DEFAULT_SIZE} slots, so that its size is bounded whatever the
+ * cardinality of the field: a colliding value simply replaces the previous one. The interner disables itself
+ * when the hit ratio of the first {@link #SAMPLE_SIZE} lookups shows that the field has a high cardinality.
+ * <p>
+ * This class is thread-safe: the slots hold immutable entries, so that a concurrent lookup either sees a complete
+ * entry or misses, in which case the value is decoded as usual.
+ */
+final class CapturedValueInterner {
+
+    /**
+     * The number of slots of the cache, i.e. the maximum number of interned values per field.
+     */
+    static final int DEFAULT_SIZE = 256;
+
+    /**
+     * The maximum length, in bytes, of an interned value.
+     */
+    static final int MAX_VALUE_LENGTH = 64;
+
+    /**
+     * The number of lookups after which the hit ratio is evaluated.
+     */
+    static final int SAMPLE_SIZE = 4096;
+
+    /**
+     * The minimum hit ratio for the interner to stay enabled.
+     */
+    static final double MIN_HIT_RATIO = 0.5;
+
+    private final Charset charset;
+
+    private final Entry[] slots;
+
+    private final int mask;
+
+    // the counters are not synchronized: they only drive a heuristic, so that a lost update does not matter.
+    private int lookups;
+
+    private int hits;
+
+    private volatile boolean enabled = true;
+
+    /**
+     * Creates a new {@link CapturedValueInterner} instance with {@link #DEFAULT_SIZE} slots, decoding UTF-8 values.
+     */
+    CapturedValueInterner() {
+        this(StandardCharsets.UTF_8, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link CapturedValueInterner} instance.
+     *
+     * @param charset the charset of the captured bytes.
+     * @param size    the number of slots, rounded up to a power of two.
+     */
+    CapturedValueInterner(final Charset charset, final int size) {
+        this.charset = charset;
+        final int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new Entry[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Gets the {@code String} value of the given byte range.
+     *
+     * @param bytes  the text bytes.
+     * @param offset the offset of the value.
+     * @param length the length of the value.
+     * @return the interned value if the same bytes were already seen, or a newly decoded value.
+     */
+    String intern(final byte[] bytes, final int offset, final int length) {
+        if (!enabled || length > MAX_VALUE_LENGTH) {
+            return new String(bytes, offset, length, charset);
+        }
+
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & mask;
+
+        final Entry entry = slots[slot];
+        if (entry != null && entry.hash == hash && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, offset, offset + length)) {
+            record(true);
+            return entry.value;
+        }
+        record(false);
+
+        final String value = new String(bytes, offset, length, charset);
+        slots[slot] = new Entry(hash, Arrays.copyOfRange(bytes, offset, offset + length), value);
+        return value;
+    }
+
+    /**
+     * Checks whether this interner is still enabled.
+     *
+     * @return {@code false} if the field was detected to have a high cardinality.
+     */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private void record(final boolean hit) {
+        if (lookups >= SAMPLE_SIZE) {
+            return;
+        }
+        if (hit) hits++;
+        if (++lookups == SAMPLE_SIZE && hits < SAMPLE_SIZE * MIN_HIT_RATIO) {
+            enabled = false;
+            Arrays.fill(slots, null);
+        }
+    }
+
+    private record Entry(int hash, byte[] bytes, String value) {
+    }
+}
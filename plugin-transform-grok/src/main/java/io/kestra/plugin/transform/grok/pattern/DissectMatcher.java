@@ -0,0 +1,234 @@
+package io.kestra.plugin.transform.grok.pattern;
+
+import io.kestra.plugin.transform.grok.data.Type;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Splits text into fields using a dissect template, e.g. {@code %{clientip} - %{user} [%{timestamp}] "%{request}"}.
+ * <p>
+ * Unlike a {@link GrokMatcher}, a {@link DissectMatcher} does not rely on regular expressions: the fields are
+ * delimited by the literal text between them, which is searched in a single pass over the input bytes.
+ * <p>
+ * The supported field modifiers are:
+ * <ul>
+ *     <li>{@code %{field}}: captures the field.</li>
+ *     <li>{@code %{field:type}}: captures the field and converts it to the given {@link Type}.</li>
+ *     <li>{@code %{field:timestamp:format}}: captures the field and parses it as a timestamp of the given format.</li>
+ *     <li>{@code %{}} or {@code %{?field}}: skips the field.</li>
+ *     <li>{@code %{+field}}: appends the value to the field of the same name.</li>
+ *     <li>{@code %{field->}}: skips the repeated delimiters following the field, e.g. padding spaces.</li>
+ * </ul>
+ */
+public final class DissectMatcher {
+
+    private static final String FIELD_START = "%{";
+    private static final String FIELD_END = "}";
+    private static final String RIGHT_PADDING_MODIFIER = "->";
+    private static final String SKIP_MODIFIER = "?";
+    private static final String APPEND_MODIFIER = "+";
+    private static final String TYPE_SEPARATOR = ":";
+
+    private final String template;
+
+    private final String appendSeparator;
+
+    private final byte[] prefix;
+
+    private final List<Key> keys;
+
+    private final Field[] fields;
+
+    /**
+     * Creates a new {@link DissectMatcher} instance.
+     *
+     * @param template        the dissect template.
+     * @param appendSeparator the separator used between appended values.
+     * @throws GrokException if the template is invalid.
+     */
+    public DissectMatcher(final String template, final String appendSeparator) {
+        this.template = Objects.requireNonNull(template, "template can't be null");
+        this.appendSeparator = appendSeparator != null ? appendSeparator : "";
+
+        final Map<String, Integer> keyIndexes = new LinkedHashMap<>();
+        final List<Key> keys = new ArrayList<>();
+        final List<Field> fields = new ArrayList<>();
+
+        int start = template.indexOf(FIELD_START);
+        if (start < 0) {
+            throw new GrokException("Invalid dissect pattern, no field found: " + template);
+        }
+        this.prefix = template.substring(0, start).getBytes(StandardCharsets.UTF_8);
+
+        while (start >= 0) {
+            final int end = template.indexOf(FIELD_END, start + FIELD_START.length());
+            if (end < 0) {
+                throw new GrokException("Invalid dissect pattern, unclosed field at position " + start + ": " + template);
+            }
+            final int next = template.indexOf(FIELD_START, end + FIELD_END.length());
+            final String delimiter = template.substring(end + FIELD_END.length(), next < 0 ? template.length() : next);
+            if (delimiter.isEmpty() && next >= 0) {
+                throw new GrokException("Invalid dissect pattern, fields must be separated by a delimiter: " + template);
+            }
+
+            String field = template.substring(start + FIELD_START.length(), end);
+            final boolean rightPadding = field.endsWith(RIGHT_PADDING_MODIFIER);
+            if (rightPadding) {
+                field = field.substring(0, field.length() - RIGHT_PADDING_MODIFIER.length());
+            }
+
+            int keyIndex = -1;
+            boolean append = false;
+            if (!field.isEmpty() && !field.startsWith(SKIP_MODIFIER)) {
+                append = field.startsWith(APPEND_MODIFIER);
+                if (append) {
+                    field = field.substring(APPEND_MODIFIER.length());
+                }
+                Type type = Type.STRING;
+                String format = null;
+                final int typeSeparator = field.indexOf(TYPE_SEPARATOR);
+                if (typeSeparator >= 0) {
+                    String typeName = field.substring(typeSeparator + 1);
+                    final int formatSeparator = typeName.indexOf(TYPE_SEPARATOR);
+                    if (formatSeparator >= 0) {
+                        format = typeName.substring(formatSeparator + 1);
+                        typeName = typeName.substring(0, formatSeparator);
+                    }
+                    type = Type.getForNameIgnoreCase(typeName, Type.STRING);
+                    field = field.substring(0, typeSeparator);
+                }
+                if (field.isEmpty()) {
+                    throw new GrokException("Invalid dissect pattern, missing field name at position " + start + ": " + template);
+                }
+
+                final Integer existing = keyIndexes.get(field);
+                if (existing != null) {
+                    keyIndex = existing;
+                    if (!append) {
+                        throw new GrokException("Invalid dissect pattern, duplicate field '" + field + "' must use the append modifier: " + template);
+                    }
+                    if (type != Type.STRING) {
+                        keys.set(keyIndex, new Key(field, type, format));
+                    }
+                } else {
+                    keyIndex = keys.size();
+                    keyIndexes.put(field, keyIndex);
+                    keys.add(new Key(field, type, format));
+                }
+            }
+            fields.add(new Field(keyIndex, append, rightPadding, delimiter.getBytes(StandardCharsets.UTF_8)));
+            start = next;
+        }
+
+        this.keys = List.copyOf(keys);
+        this.fields = fields.toArray(Field[]::new);
+    }
+
+    /**
+     * Returns the dissect template.
+     *
+     * @return the template.
+     */
+    public String template() {
+        return template;
+    }
+
+    /**
+     * Captures the fields of the given text.
+     *
+     * @param bytes the text bytes to match.
+     * @return a {@code Map} that contains all captured fields, or {@code null} if the text does not match the template.
+     */
+    public Map<String, Object> captures(final byte[] bytes) {
+        if (!startsWith(bytes, 0, prefix)) {
+            return null;
+        }
+
+        final String[] values = new String[keys.size()];
+        int position = prefix.length;
+        for (int i = 0; i < fields.length; i++) {
+            final Field field = fields[i];
+            final byte[] delimiter = field.delimiter();
+
+            final int end;
+            final int next;
+            if (i == fields.length - 1) {
+                // the last field spans until the trailing text, if any.
+                end = bytes.length - delimiter.length;
+                if (end < position || !startsWith(bytes, end, delimiter)) {
+                    return null;
+                }
+                next = bytes.length;
+            } else {
+                end = indexOf(bytes, position, delimiter);
+                if (end < 0) {
+                    return null;
+                }
+                int skipped = end + delimiter.length;
+                if (field.rightPadding()) {
+                    while (startsWith(bytes, skipped, delimiter)) {
+                        skipped += delimiter.length;
+                    }
+                }
+                next = skipped;
+            }
+
+            if (field.keyIndex() >= 0) {
+                final String value = new String(bytes, position, end - position, StandardCharsets.UTF_8);
+                final String previous = values[field.keyIndex()];
+                values[field.keyIndex()] = field.append() && previous != null ? previous + appendSeparator + value : value;
+            }
+            position = next;
+        }
+
+        final Map<String, Object> captured = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < values.length; i++) {
+            final Key key = keys.get(i);
+            captured.put(key.name(), key.type() == Type.STRING ? values[i] : key.type().convert(values[i], key.format()));
+        }
+        return captured;
+    }
+
+    private static int indexOf(final byte[] bytes, final int from, final byte[] delimiter) {
+        final byte first = delimiter[0];
+        final int max = bytes.length - delimiter.length;
+        for (int i = from; i <= max; i++) {
+            if (bytes[i] == first && startsWith(bytes, i, delimiter)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(final byte[] bytes, final int offset, final byte[] delimiter) {
+        if (delimiter.length == 0 || offset + delimiter.length > bytes.length) {
+            return delimiter.length == 0;
+        }
+        for (int i = 0; i < delimiter.length; i++) {
+            if (bytes[offset + i] != delimiter[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "DissectMatcher{" +
+            "template='" + template + '\'' +
+            ", appendSeparator='" + appendSeparator + '\'' +
+            '}';
+    }
+
+    private record Key(String name, Type type, String format) {
+    }
+
+    private record Field(int keyIndex, boolean append, boolean rightPadding, byte[] delimiter) {
+    }
+}
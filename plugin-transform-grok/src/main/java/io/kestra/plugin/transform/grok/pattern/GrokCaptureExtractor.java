@@ -2,15 +2,26 @@ package io.kestra.plugin.transform.grok.pattern;
 
 import org.joni.Region;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public interface GrokCaptureExtractor {
 
     void extract(final byte[] bytes, final Region region);
 
+    /**
+     * Extracts the captured values given the begin and end offsets of each group,
+     * at index {@code 2n} and {@code 2n+1}, as returned by {@link LinearRegex#search(byte[])}.
+     *
+     * @param bytes   the text bytes.
+     * @param offsets the group offsets.
+     */
+    void extract(final byte[] bytes, final int[] offsets);
+
     class MapGrokCaptureExtractor implements GrokCaptureExtractor {
 
         private final List<GrokCaptureExtractor> extractors;
@@ -23,10 +34,24 @@ public interface GrokCaptureExtractor {
          * @param grokCaptureGroups the list of {@link GrokCaptureGroup}.
          */
         public MapGrokCaptureExtractor(final List<GrokCaptureGroup> grokCaptureGroups) {
-            this.extractors = grokCaptureGroups
-                .stream()
-                .map(group -> group.getExtractor(o -> captured.put(group.name(), o)))
-                .collect(Collectors.toList());
+            this(grokCaptureGroups, StandardCharsets.UTF_8, null);
+        }
+
+        /**
+         * Creates a new {@link MapGrokCaptureExtractor} instance.
+         *
+         * @param grokCaptureGroups the list of {@link GrokCaptureGroup}.
+         * @param charset           the charset of the matched bytes.
+         * @param interners         the {@link CapturedValueInterner} of each group, or {@code null}.
+         */
+        MapGrokCaptureExtractor(final List<GrokCaptureGroup> grokCaptureGroups,
+                                final Charset charset,
+                                final CapturedValueInterner[] interners) {
+            this.extractors = new ArrayList<>(grokCaptureGroups.size());
+            for (int i = 0; i < grokCaptureGroups.size(); i++) {
+                final GrokCaptureGroup group = grokCaptureGroups.get(i);
+                this.extractors.add(group.getExtractor(o -> captured.put(group.name(), o), charset, interners != null ? interners[i] : null));
+            }
         }
 
         /**
@@ -39,6 +64,16 @@ public interface GrokCaptureExtractor {
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void extract(final byte[] bytes, final int[] offsets) {
+            for (GrokCaptureExtractor extractor : extractors) {
+                extractor.extract(bytes, offsets);
+            }
+        }
+
         public Map<String, Object> captured() {
             return captured;
         }
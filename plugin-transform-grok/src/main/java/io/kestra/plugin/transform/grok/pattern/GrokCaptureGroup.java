@@ -3,6 +3,7 @@ package io.kestra.plugin.transform.grok.pattern;
 import io.kestra.plugin.transform.grok.data.Type;
 import org.joni.Region;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -13,13 +14,19 @@ import java.util.function.Consumer;
  * @param type     the type defined for the data field to capture.
  * @param name     the name defined for the data field to capture.
  * @param backRefs
+ * @param format   the format of the data field to capture, or {@code null}.
  */
 public record GrokCaptureGroup(
     Type type,
     String name,
-    int[] backRefs
+    int[] backRefs,
+    String format
 ) {
 
+    public GrokCaptureGroup(final Type type, final String name, final int[] backRefs) {
+        this(type, name, backRefs, null);
+    }
+
     public GrokCaptureGroup {
         Objects.requireNonNull(type, "type cannot be null");
         Objects.requireNonNull(name, "name cannot be null");
@@ -33,10 +40,25 @@ public record GrokCaptureGroup(
      * @return the GrokCaptureExtractor
      */
     public GrokCaptureExtractor getExtractor(final Consumer<Object> consumer) {
-        return new RawValueExtractor(backRefs, (s -> consumer.accept(type.convert(s))));
+        return getExtractor(consumer, StandardCharsets.UTF_8, null);
     }
 
-    private record RawValueExtractor(int[] backRefs, Consumer<String> consumer) implements GrokCaptureExtractor {
+    /**
+     * Gets the {@link GrokCaptureExtractor} to be used for capturing that group.
+     *
+     * @param consumer the {@link Consumer} to call when a data field is captured.
+     * @param charset  the charset of the matched bytes.
+     * @param interner the {@link CapturedValueInterner} used to decode the captured values, or {@code null}.
+     * @return the GrokCaptureExtractor
+     */
+    GrokCaptureExtractor getExtractor(final Consumer<Object> consumer, final Charset charset, final CapturedValueInterner interner) {
+        if (type == Type.STRING) {
+            return new RawValueExtractor(backRefs, charset, interner, consumer::accept);
+        }
+        return new RawValueExtractor(backRefs, charset, interner, (s -> consumer.accept(type.convert(s, format))));
+    }
+
+    private record RawValueExtractor(int[] backRefs, Charset charset, CapturedValueInterner interner, Consumer<String> consumer) implements GrokCaptureExtractor {
 
         /**
          * {@inheritDoc}
@@ -47,11 +69,32 @@ public record GrokCaptureGroup(
                 int offset = region.getBeg(capture);
                 int length = region.getEnd(capture) - offset;
                 if (offset >= 0) {
-                    String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
-                    consumer.accept(value);
+                    consumer.accept(decode(bytes, offset, length));
                     break; // we only need to capture the first value.
                 }
             }
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void extract(byte[] bytes, int[] offsets) {
+            for (int capture : backRefs) {
+                int offset = offsets[2 * capture];
+                int length = offsets[2 * capture + 1] - offset;
+                if (offset >= 0) {
+                    consumer.accept(decode(bytes, offset, length));
+                    break; // we only need to capture the first value.
+                }
+            }
+        }
+
+        private String decode(byte[] bytes, int offset, int length) {
+            if (interner != null) {
+                return interner.intern(bytes, offset, length);
+            }
+            return new String(bytes, offset, length, charset);
+        }
     }
 }
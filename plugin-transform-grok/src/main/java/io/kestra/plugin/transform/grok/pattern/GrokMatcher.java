@@ -1,14 +1,18 @@
 package io.kestra.plugin.transform.grok.pattern;
 
 import io.kestra.plugin.transform.grok.data.Type;
+import org.jcodings.Encoding;
+import org.jcodings.EncodingDB;
 import org.jcodings.specific.UTF8Encoding;
 import org.joni.Matcher;
 import org.joni.NameEntry;
 import org.joni.Option;
 import org.joni.Regex;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -17,8 +21,12 @@ import java.util.stream.Collectors;
 
 public final class GrokMatcher {
 
+    private static final String ASCII_PROBE = "\t azAZ09!\"#%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
     private final Map<String, GrokPattern> patternsByName;
 
+    private final Map<String, GrokPattern> patternsBySemantic;
+
     private final List<GrokPattern> patterns;
 
     private final String expression;
@@ -27,6 +35,16 @@ public final class GrokMatcher {
 
     private final List<GrokCaptureGroup> grokCaptureGroups;
 
+    private final LinearRegex linearRegex;
+
+    private final boolean anchored;
+
+    private final Charset charset;
+
+    private final boolean utf8;
+
+    private final CapturedValueInterner[] interners;
+
     /**
      * Creates a new {@link GrokMatcher} instance.
      *
@@ -35,15 +53,58 @@ public final class GrokMatcher {
      */
     GrokMatcher(final List<GrokPattern> patterns,
                 final String expression) {
+        this(patterns, expression, null, false);
+    }
+
+    /**
+     * Creates a new {@link GrokMatcher} instance.
+     *
+     * @param patterns    the list of patterns.
+     * @param expression  the original expression.
+     * @param linearRegex the linear-time compiled expression, or {@code null} to only use joni.
+     * @param anchored    if the expression is anchored at the start of the text.
+     */
+    GrokMatcher(final List<GrokPattern> patterns,
+                final String expression,
+                final LinearRegex linearRegex,
+                final boolean anchored) {
+        this(patterns, expression, linearRegex, anchored, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new {@link GrokMatcher} instance.
+     *
+     * @param patterns    the list of patterns.
+     * @param expression  the original expression.
+     * @param linearRegex the linear-time compiled expression, or {@code null} to only use joni.
+     * @param anchored    if the expression is anchored at the start of the text.
+     * @param charset     the charset of the text bytes to match, which must be ASCII-compatible.
+     * @throws GrokException if the charset is not supported.
+     */
+    GrokMatcher(final List<GrokPattern> patterns,
+                final String expression,
+                final LinearRegex linearRegex,
+                final boolean anchored,
+                final Charset charset) {
         Objects.requireNonNull(patterns, "pattern can't be null");
         Objects.requireNonNull(expression, "expression can't be null");
+        Objects.requireNonNull(charset, "charset can't be null");
         this.patterns = patterns;
         this.expression = expression;
+        this.linearRegex = linearRegex;
+        this.anchored = anchored;
+        this.charset = charset;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
         this.patternsByName = patterns
             .stream()
             .collect(Collectors.toMap(GrokPattern::syntax, p -> p,  (p1, p2) -> p1.semantic() != null ? p1 : p2));
-        byte[] bytes = expression.getBytes(StandardCharsets.UTF_8);
-        regex = new Regex(bytes, 0, bytes.length, Option.NONE, UTF8Encoding.INSTANCE);
+        this.patternsBySemantic = patterns
+            .stream()
+            .filter(p -> p.semantic() != null)
+            .collect(Collectors.toMap(GrokPattern::semantic, p -> p,  (p1, p2) -> p1));
+        // the expression is compiled in the charset of the text, so that the text bytes are matched without being transcoded.
+        byte[] bytes = expression.getBytes(charset);
+        regex = new Regex(bytes, 0, bytes.length, Option.NONE, encoding(charset));
 
         grokCaptureGroups = new ArrayList<>();
         for (Iterator<NameEntry> entry = regex.namedBackrefIterator(); entry.hasNext();) {
@@ -53,9 +114,16 @@ public final class GrokMatcher {
                 nameEntry.nameP,
                 nameEntry.nameEnd - nameEntry.nameP,
                 StandardCharsets.UTF_8);
-            final GrokPattern pattern = getGrokPattern(field);
+            final GrokPattern pattern = capturedPattern(field);
             final Type type = pattern != null ? pattern.type() : Type.STRING;
-            grokCaptureGroups.add(new GrokCaptureGroup(type, field, nameEntry.getBackRefs()));
+            final String format = pattern != null ? pattern.format() : null;
+            grokCaptureGroups.add(new GrokCaptureGroup(type, field, nameEntry.getBackRefs(), format));
+        }
+
+        // the interned values are shared by all the lines matched by this matcher, other types are converted anyway.
+        interners = new CapturedValueInterner[grokCaptureGroups.size()];
+        for (int i = 0; i < interners.length; i++) {
+            interners[i] = grokCaptureGroups.get(i).type() == Type.STRING ? new CapturedValueInterner(charset, CapturedValueInterner.DEFAULT_SIZE) : null;
         }
     }
 
@@ -67,6 +135,16 @@ public final class GrokMatcher {
         return patternsByName.get(name);
     }
 
+    /**
+     * Gets the pattern captured by the given group, whose type the captured value is converted to.
+     * A group is named after the semantic of the pattern it captures, e.g. {@code id} for {@code %{INT:id:int}},
+     * or after its syntax when there is no semantic.
+     */
+    private GrokPattern capturedPattern(final String group) {
+        final GrokPattern pattern = patternsBySemantic.get(group);
+        return pattern != null ? pattern : getGrokPattern(group);
+    }
+
     /**
      * Returns the compiled regex expression.
      * @return the {@link Regex}.
@@ -83,6 +161,24 @@ public final class GrokMatcher {
         return expression;
     }
 
+    /**
+     * Returns the number of named groups captured by the expression.
+     *
+     * @return the number of capture groups.
+     */
+    public int captureGroupCount() {
+        return grokCaptureGroups.size();
+    }
+
+    /**
+     * Checks whether this matcher matches in linear time, i.e. without relying on the joni backtracking engine.
+     *
+     * @return {@code true} if the expression was compiled to a {@link LinearRegex}.
+     */
+    public boolean isLinear() {
+        return linearRegex != null;
+    }
+
     /**
      * Captures matching group.
      *
@@ -91,22 +187,96 @@ public final class GrokMatcher {
      */
     public Map<String, Object> captures(final byte[] bytes) {
 
-        long now = System.currentTimeMillis();
-        final var extractor = new GrokCaptureExtractor.MapGrokCaptureExtractor(grokCaptureGroups);
+        final var extractor = new GrokCaptureExtractor.MapGrokCaptureExtractor(grokCaptureGroups, charset, interners);
 
-        final Matcher matcher = regex.matcher(bytes);
-        int result = matcher.search(0, bytes.length, Option.DEFAULT);
+        if (isLinear(bytes)) {
+            final int[] offsets = linearRegex.search(bytes);
+            if (offsets == null) {
+                return null;
+            }
+            extractor.extract(bytes, offsets);
+            return extractor.captured();
+        }
 
-        if (result == Matcher.FAILED) {
+        final Matcher matcher = regex.matcher(bytes);
+        if (!find(matcher, bytes)) {
             return null;
         }
+        extractor.extract(bytes, matcher.getEagerRegion());
+
+        return extractor.captured();
+    }
+
+    /**
+     * Checks whether the given bytes match, without extracting nor converting the captured values.
+     *
+     * @param bytes the text bytes to match.
+     * @return      {@code true} if the expression matches.
+     */
+    public boolean matches(final byte[] bytes) {
+        if (isLinear(bytes)) {
+            return linearRegex.search(bytes) != null;
+        }
+        return find(regex.matcher(bytes), bytes);
+    }
+
+    private boolean isLinear(final byte[] bytes) {
+        // the linear-time engine only knows UTF-8, which other charsets share for ASCII text.
+        return linearRegex != null && ((utf8 && !linearRegex.isUnicodeSensitive()) || isAscii(bytes));
+    }
+
+    private boolean find(final Matcher matcher, final byte[] bytes) {
+        long now = System.currentTimeMillis();
+
+        // an anchored expression is only tried at the start of the text, so that a non-matching text fails after one attempt.
+        int result = anchored
+            ? matcher.match(0, bytes.length, Option.DEFAULT)
+            : matcher.search(0, bytes.length, Option.DEFAULT);
+
         if (result == Matcher.INTERRUPTED) {
             long interruptedAfterMs = System.currentTimeMillis() - now;
             throw new RuntimeException("Grok pattern matching was interrupted before completion (" + interruptedAfterMs + " ms)");
         }
-        extractor.extract(bytes, matcher.getEagerRegion());
+        return result != Matcher.FAILED;
+    }
 
-        return extractor.captured();
+    /**
+     * Returns the charset of the text bytes to match.
+     *
+     * @return the {@link Charset}.
+     */
+    public Charset charset() {
+        return charset;
+    }
+
+    private static Encoding encoding(final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return UTF8Encoding.INSTANCE;
+        }
+        if (!Arrays.equals(ASCII_PROBE.getBytes(charset), ASCII_PROBE.getBytes(StandardCharsets.US_ASCII))) {
+            throw new GrokException("Unsupported charset '" + charset.name() + "', only ASCII-compatible charsets can be matched");
+        }
+        final List<String> names = new ArrayList<>();
+        names.add(charset.name());
+        names.addAll(charset.aliases());
+        for (String name : names) {
+            final byte[] key = name.getBytes(StandardCharsets.US_ASCII);
+            EncodingDB.Entry entry = EncodingDB.getEncodings().get(key);
+            if (entry == null) {
+                entry = EncodingDB.getAliases().get(key);
+            }
+            if (entry != null) {
+                return entry.getEncoding();
+            }
+        }
+        throw new GrokException("Unsupported charset '" + charset.name() + "', no matching regex encoding found");
+    }
+
+    private static boolean isAscii(final byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) return false;
+        }
+        return true;
     }
 
     @Override
@@ -8,13 +8,26 @@ import io.kestra.plugin.transform.grok.data.Type;
  * @param syntax   the grok pattern syntax.
  * @param semantic the grok pattern semantic.
  * @param type     the grok pattern type.
+ * @param format   the format of the captured value, e.g. the {@code DateTimeFormatter} pattern of a timestamp, or {@code null}.
  */
 public record GrokPattern(
     String syntax,
     String semantic,
-    Type type
+    Type type,
+    String format
 ) {
 
+    /**
+     * Creates a new {@link GrokPattern} instance without format.
+     *
+     * @param syntax   the grok pattern syntax.
+     * @param semantic the grok pattern semantic.
+     * @param type     the grok pattern type.
+     */
+    public GrokPattern(final String syntax, final String semantic, final Type type) {
+        this(syntax, semantic, type, null);
+    }
+
     /**
      * Creates a new {@link GrokPattern} instance.
      *
@@ -25,10 +38,25 @@ public record GrokPattern(
      * @return a new {@link GrokPattern}.
      */
     public static GrokPattern of(final String syntax, final String semantic, final String type) {
+        return of(syntax, semantic, type, null);
+    }
+
+    /**
+     * Creates a new {@link GrokPattern} instance.
+     *
+     * @param syntax   the grok pattern syntax.
+     * @param semantic the grok pattern semantic.
+     * @param type     the grok pattern type.
+     * @param format   the format of the captured value.
+     *
+     * @return a new {@link GrokPattern}.
+     */
+    public static GrokPattern of(final String syntax, final String semantic, final String type, final String format) {
         return new GrokPattern(
             syntax,
             semantic,
-            type != null ? Type.getForNameIgnoreCase(type.toUpperCase(), Type.STRING) : Type.STRING
+            type != null ? Type.getForNameIgnoreCase(type.toUpperCase(), Type.STRING) : Type.STRING,
+            format
         );
     }
 }
@@ -3,9 +3,15 @@ package io.kestra.plugin.transform.grok.pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,14 +22,29 @@ public final class GrokPatternCompiler {
     private static final String SYNTAX_FIELD = "syntax";
     private static final String SEMANTIC_FIELD = "semantic";
     private static final String TYPE_FIELD = "type";
+    private static final String FORMAT_FIELD = "format";
 
-    private static final String REGEX = "(?:%\\{(?<syntax>[A-Z0-9_]+)(?:\\:(?<semantic>[a-zA-Z0-9_\\\\-]+))?(?:\\:(?<type>[a-zA-Z0-9_\\\\-]+))?\\})";
+    private static final String REGEX = "(?:%\\{(?<syntax>[A-Z0-9_]+)(?:\\:(?<semantic>[a-zA-Z0-9_\\\\-]+))?(?:\\:(?<type>[a-zA-Z0-9_\\\\-]+)(?:\\:(?<format>[^}]+))?)?\\})";
     private static final Pattern PATTERN = Pattern.compile(REGEX);
 
+    private static final String NAMED_GROUP_START = "(?<";
+
     private final GrokPatternResolver resolver;
 
     private final boolean namedCapturesOnly;
 
+    private final boolean linearMatching;
+
+    private final Set<String> fields;
+
+    private final Charset charset;
+
+    /**
+     * The expansions of pattern definitions, by syntax. They do not depend on the semantic
+     * the definitions are referenced with, so they are computed once per compiler instance.
+     */
+    private final Map<String, Expansion> expansions = new HashMap<>();
+
     /**
      * Creates a new {@link GrokPatternCompiler} instance.
      *
@@ -32,60 +53,210 @@ public final class GrokPatternCompiler {
      */
     public GrokPatternCompiler(final GrokPatternResolver resolver,
                                final boolean namedCapturesOnly) {
+        this(resolver, namedCapturesOnly, true);
+    }
+
+    /**
+     * Creates a new {@link GrokPatternCompiler} instance.
+     *
+     * @param resolver          the grok pattern resolver.
+     * @param namedCapturesOnly is only named pattern should be captured.
+     * @param linearMatching    if expressions fitting a regular subset should be matched in linear time, instead of using joni.
+     */
+    public GrokPatternCompiler(final GrokPatternResolver resolver,
+                               final boolean namedCapturesOnly,
+                               final boolean linearMatching) {
+        this(resolver, namedCapturesOnly, linearMatching, null);
+    }
+
+    /**
+     * Creates a new {@link GrokPatternCompiler} instance.
+     *
+     * @param resolver          the grok pattern resolver.
+     * @param namedCapturesOnly is only named pattern should be captured.
+     * @param linearMatching    if expressions fitting a regular subset should be matched in linear time, instead of using joni.
+     * @param fields            the names of the groups to capture, or {@code null} to capture all named groups.
+     *                          Other named groups are compiled to non-capturing groups.
+     */
+    public GrokPatternCompiler(final GrokPatternResolver resolver,
+                               final boolean namedCapturesOnly,
+                               final boolean linearMatching,
+                               final Set<String> fields) {
+        this(resolver, namedCapturesOnly, linearMatching, fields, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new {@link GrokPatternCompiler} instance.
+     *
+     * @param resolver          the grok pattern resolver.
+     * @param namedCapturesOnly is only named pattern should be captured.
+     * @param linearMatching    if expressions fitting a regular subset should be matched in linear time, instead of using joni.
+     * @param fields            the names of the groups to capture, or {@code null} to capture all named groups.
+     *                          Other named groups are compiled to non-capturing groups.
+     * @param charset           the charset of the text bytes to match.
+     */
+    public GrokPatternCompiler(final GrokPatternResolver resolver,
+                               final boolean namedCapturesOnly,
+                               final boolean linearMatching,
+                               final Set<String> fields,
+                               final Charset charset) {
         Objects.requireNonNull(resolver, "resolver can't be null");
+        Objects.requireNonNull(charset, "charset can't be null");
         this.resolver = resolver;
         this.namedCapturesOnly = namedCapturesOnly;
+        this.linearMatching = linearMatching;
+        this.fields = fields != null ? Set.copyOf(fields) : null;
+        this.charset = charset;
     }
 
     public GrokMatcher compile(final String expression) {
+        return compile(expression, false);
+    }
+
+    /**
+     * Compiles the given grok expression.
+     *
+     * @param expression the grok expression.
+     * @param anchored   if the expression must match the whole text, rather than be searched within it.
+     * @return a new {@link GrokMatcher}.
+     */
+    public GrokMatcher compile(final String expression, final boolean anchored) {
         Objects.requireNonNull(expression, "expression can't be null");
         LOG.trace("Starting to compile grok matcher expression : {}", expression);
         ArrayList<GrokPattern> patterns = new ArrayList<>();
-        final String regex = compileRegex(expression, patterns);
+        String regex = compileRegex(expression, patterns);
+        if (anchored) {
+            regex = "\\A(?:" + regex + ")\\z";
+        }
         LOG.trace("Grok expression compiled to regex : {}", regex);
-        return new GrokMatcher(patterns, regex);
+        final LinearRegex linearRegex = linearMatching ? LinearRegex.compile(regex).orElse(null) : null;
+        LOG.trace("Grok expression matched in linear time : {}", linearRegex != null);
+        return new GrokMatcher(patterns, regex, linearRegex, anchored, charset);
     }
 
     private String compileRegex(final String expression, final List<GrokPattern> patterns) {
-        Matcher matcher = PATTERN.matcher(expression);
-        final StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = new StringBuilder(expression.length());
+        compileRegex(project(expression), patterns, sb, new LinkedHashSet<>());
+        return sb.toString();
+    }
+
+    /**
+     * Expands all the grok references of the given expression into the given builder.
+     *
+     * @param expression the expression to expand.
+     * @param patterns   the list to add the referenced patterns to.
+     * @param sb         the builder to append the expanded expression to.
+     * @param expanding  the syntaxes being currently expanded, used to detect cycles.
+     */
+    private void compileRegex(final String expression,
+                              final List<GrokPattern> patterns,
+                              final StringBuilder sb,
+                              final Set<String> expanding) {
+        final Matcher matcher = PATTERN.matcher(expression);
+        int last = 0;
         while (matcher.find()) {
-            GrokPattern grok = GrokPattern.of(
+            final GrokPattern grok = GrokPattern.of(
                 matcher.group(SYNTAX_FIELD),
                 matcher.group(SEMANTIC_FIELD),
-                matcher.group(TYPE_FIELD)
+                matcher.group(TYPE_FIELD),
+                matcher.group(FORMAT_FIELD)
             );
-
             patterns.add(grok);
 
-            final String resolved = resolver.resolve(grok.syntax());
-            String replacement = compileRegex(resolved, patterns);
-            if (grok.semantic() != null) {
-                replacement = capture(replacement, grok.semantic());
-            } else if (!namedCapturesOnly) {
-                replacement = capture(replacement, grok.syntax());
-            }
+            sb.append(expression, last, matcher.start());
+            last = matcher.end();
 
-            // Properly escape $ characters
-            // Illegal group reference exception can arise when the replacement string for
-            // Matcher.appendReplacement contains illegal references to capture groups,
-            // which could occur when there are unresolved or incorrectly escaped group references.
+            final String name = grok.semantic() != null ? grok.semantic() : namedCapturesOnly ? null : grok.syntax();
+            if (name != null && isCaptured(name)) {
+                sb.append("(?<").append(name).append('>');
+            } else if (name != null) {
+                sb.append("(?:");
+            }
 
-            // This often happens with the $ character in regex, which signifies a group reference.
-            replacement = replacement.replace("\\", "\\\\").replace("$", "\\$");
+            final Expansion expansion = expand(grok.syntax(), expanding);
+            sb.append(expansion.regex());
+            patterns.addAll(expansion.patterns());
 
-            try {
-                matcher.appendReplacement(sb, replacement);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Failed to : " + replacement, e);
+            if (name != null) {
+                sb.append(')');
             }
         }
         // Copy the remainder of the input sequence.
-        matcher.appendTail(sb);
+        sb.append(expression, last, expression.length());
+    }
+
+    private Expansion expand(final String syntax, final Set<String> expanding) {
+        final Expansion cached = expansions.get(syntax);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!expanding.add(syntax)) {
+            throw new GrokException(
+                "Circular reference detected in grok pattern definitions: " + String.join(" -> ", expanding) + " -> " + syntax
+            );
+        }
+        try {
+            final String resolved = resolver.resolve(syntax);
+            final List<GrokPattern> patterns = new ArrayList<>();
+            final StringBuilder sb = new StringBuilder(resolved.length());
+            compileRegex(project(resolved), patterns, sb, expanding);
+            final Expansion expansion = new Expansion(sb.toString(), List.copyOf(patterns));
+            expansions.put(syntax, expansion);
+            return expansion;
+        } finally {
+            expanding.remove(syntax);
+        }
+    }
+
+    private boolean isCaptured(final String name) {
+        return fields == null || fields.contains(name);
+    }
+
+    /**
+     * Turns the named groups of the given regex that are not projected into non-capturing groups.
+     *
+     * @param regex the regex.
+     * @return the projected regex.
+     */
+    private String project(final String regex) {
+        if (fields == null || !regex.contains(NAMED_GROUP_START)) {
+            return regex;
+        }
+
+        final StringBuilder sb = new StringBuilder(regex.length());
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                sb.append(c).append(regex.charAt(++i));
+                continue;
+            }
+            if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (regex.startsWith(NAMED_GROUP_START, i)) {
+                final int nameStart = i + NAMED_GROUP_START.length();
+                final int nameEnd = regex.indexOf('>', nameStart);
+                final boolean isLookbehind = nameStart < regex.length() && (regex.charAt(nameStart) == '=' || regex.charAt(nameStart) == '!');
+                if (!isLookbehind && nameEnd > 0 && !isCaptured(regex.substring(nameStart, nameEnd))) {
+                    sb.append("(?:");
+                    i = nameEnd;
+                    continue;
+                }
+            }
+            sb.append(c);
+        }
         return sb.toString();
     }
 
-    private String capture(final String expression, final String name) {
-        return "(?<" + name + ">" + expression + ")";
+    /**
+     * The expansion of a pattern definition.
+     *
+     * @param regex    the expanded regex.
+     * @param patterns the patterns referenced by the definition, directly or not.
+     */
+    private record Expansion(String regex, List<GrokPattern> patterns) {
     }
 }
@@ -0,0 +1,1040 @@
+package io.kestra.plugin.transform.grok.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A regular expression engine guaranteeing a matching time linear in the size of the input.
+ * <p>
+ * The expression is compiled to an NFA that is simulated in lock-step over the input (a.k.a. Pike VM), so that
+ * each input character is considered at most once per NFA state, whatever the expression. Capture offsets and the
+ * leftmost-first semantics of backtracking engines are preserved by keeping the threads in priority order.
+ * <p>
+ * Only a regular subset of the Ruby syntax used by joni is supported: literals, character classes, {@code .},
+ * alternations, greedy and lazy quantifiers, non-capturing and named groups, anchors, word boundaries,
+ * lookarounds made of a fixed sequence of characters, and atomic groups that can only match in a single way.
+ * Backreferences, general lookarounds and atomic groups, possessive quantifiers, and inline options are not,
+ * in which case {@link #compile(String)} returns {@link Optional#empty()}.
+ * <p>
+ * Like joni with the Ruby syntax, only named groups are capturing when an expression contains named groups.
+ */
+public final class LinearRegex {
+
+    /**
+     * The maximum number of instructions of a compiled expression, e.g. when expanding bounded quantifiers.
+     */
+    static final int MAX_PROGRAM_SIZE = 100_000;
+
+    private static final int MAX_REPEAT = 1000;
+
+    // instructions
+    private static final int CHAR = 0;
+    private static final int SET = 1;
+    private static final int ANY = 2;
+    private static final int SPLIT = 3;
+    private static final int JMP = 4;
+    private static final int SAVE = 5;
+    private static final int ASSERT = 6;
+    private static final int LOOK = 7;
+    private static final int MATCH = 8;
+
+    // assertions
+    private static final int BEGIN_LINE = 0;
+    private static final int END_LINE = 1;
+    private static final int BEGIN_TEXT = 2;
+    private static final int END_TEXT = 3;
+    private static final int END_TEXT_OR_NEWLINE = 4;
+    private static final int WORD_BOUNDARY = 5;
+    private static final int NOT_WORD_BOUNDARY = 6;
+
+    private final String expression;
+
+    private final int[] ops;
+
+    private final int[] args1;
+
+    private final int[] args2;
+
+    private final CharSet[] sets;
+
+    private final Look[] looks;
+
+    private final int slots;
+
+    private final boolean unicodeSensitive;
+
+    private final boolean anchoredStart;
+
+    private final ThreadLocal<Machine> machines;
+
+    private LinearRegex(final String expression,
+                        final Compiler compiler,
+                        final int groups,
+                        final boolean unicodeSensitive,
+                        final boolean anchoredStart) {
+        this.expression = expression;
+        this.ops = Arrays.copyOf(compiler.ops, compiler.size);
+        this.args1 = Arrays.copyOf(compiler.args1, compiler.size);
+        this.args2 = Arrays.copyOf(compiler.args2, compiler.size);
+        this.sets = compiler.sets.toArray(CharSet[]::new);
+        this.looks = compiler.looks.toArray(Look[]::new);
+        this.slots = 2 * (groups + 1);
+        this.unicodeSensitive = unicodeSensitive;
+        this.anchoredStart = anchoredStart;
+        this.machines = ThreadLocal.withInitial(() -> new Machine(ops.length));
+    }
+
+    /**
+     * Compiles the given expression if it fits the supported regular subset.
+     *
+     * @param expression the regex expression.
+     * @return the {@link LinearRegex}, or {@link Optional#empty()} if the expression is not supported.
+     */
+    public static Optional<LinearRegex> compile(final String expression) {
+        Objects.requireNonNull(expression, "expression can't be null");
+        try {
+            final Parser parser = new Parser(expression);
+            final Node node = parser.parse();
+            final Compiler compiler = new Compiler();
+            compiler.emit(node);
+            compiler.add(MATCH, 0, 0);
+            return Optional.of(new LinearRegex(expression, compiler, parser.groups, parser.unicodeSensitive, isAnchoredStart(node)));
+        } catch (UnsupportedExpressionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isAnchoredStart(final Node node) {
+        return switch (node) {
+            case AssertNode assertion -> assertion.kind() == BEGIN_TEXT;
+            case ConcatNode concat -> !concat.nodes().isEmpty() && isAnchoredStart(concat.nodes().getFirst());
+            case GroupNode group -> isAnchoredStart(group.node());
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns the raw regex expression.
+     *
+     * @return the expression.
+     */
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Checks whether the expression uses character classes, such as {@code \w}, or word boundaries whose
+     * definition for non-ASCII characters may differ from the one of joni. Such expressions should only be
+     * matched against ASCII text.
+     *
+     * @return {@code true} if the expression is sensitive to non-ASCII characters.
+     */
+    public boolean isUnicodeSensitive() {
+        return unicodeSensitive;
+    }
+
+    /**
+     * Searches the leftmost match of the expression in the given UTF-8 bytes.
+     *
+     * @param bytes the text bytes to match.
+     * @return the begin and end offsets of the match (at index {@code 0} and {@code 1}) and of each named group
+     * (at index {@code 2n} and {@code 2n+1}), {@code -1} for unmatched groups; or {@code null} if the expression did not match.
+     */
+    public int[] search(final byte[] bytes) {
+        final Machine machine = machines.get();
+        Threads current = machine.current;
+        Threads next = machine.next;
+        current.clear();
+        next.clear();
+
+        final int length = bytes.length;
+        int[] matched = null;
+        int position = 0;
+        while (true) {
+            if (matched == null && (!anchoredStart || position == 0)) {
+                final int[] captures = new int[slots];
+                Arrays.fill(captures, -1);
+                captures[0] = position;
+                addThread(machine, current, 0, captures, bytes, position);
+            }
+
+            final int codePoint = position < length ? codePointAt(bytes, position) : -1;
+            final int width = position < length ? width(bytes, position) : 0;
+
+            if (current.size == 0) {
+                // an expression anchored at the start of the text can only match from the first position.
+                if (matched != null || position >= length || anchoredStart) {
+                    break;
+                }
+                // the threads visited while following the instructions at this position died, e.g. at an assertion.
+                current.clear();
+                position += width;
+                continue;
+            }
+
+            for (int i = 0; i < current.size; i++) {
+                final int pc = current.pcs[i];
+                final int[] captures = current.captures[i];
+                switch (ops[pc]) {
+                    case MATCH -> {
+                        matched = captures.clone();
+                        matched[1] = position;
+                        i = current.size; // lower-priority threads are cut off.
+                    }
+                    case CHAR -> {
+                        if (codePoint == args1[pc]) {
+                            addThread(machine, next, pc + 1, captures, bytes, position + width);
+                        }
+                    }
+                    case SET -> {
+                        if (codePoint >= 0 && sets[args1[pc]].matches(codePoint)) {
+                            addThread(machine, next, pc + 1, captures, bytes, position + width);
+                        }
+                    }
+                    case ANY -> {
+                        if (codePoint >= 0 && codePoint != '\n') {
+                            addThread(machine, next, pc + 1, captures, bytes, position + width);
+                        }
+                    }
+                    default -> throw new IllegalStateException("Unexpected instruction: " + ops[pc]);
+                }
+            }
+
+            final Threads swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+
+            if (position >= length) {
+                break;
+            }
+            position += width;
+        }
+        current.clear();
+        return matched;
+    }
+
+    /**
+     * Adds the thread for the given instruction, following all the instructions that do not consume input.
+     */
+    private void addThread(final Machine machine,
+                           final Threads threads,
+                           final int startPc,
+                           final int[] startCaptures,
+                           final byte[] bytes,
+                           final int position) {
+        final Stack stack = machine.stack;
+        stack.push(startPc, startCaptures);
+        while (stack.size > 0) {
+            stack.size--;
+            int pc = stack.pcs[stack.size];
+            int[] captures = stack.captures[stack.size];
+            stack.captures[stack.size] = null;
+            follow:
+            while (threads.visit(pc)) {
+                switch (ops[pc]) {
+                    case JMP -> pc = args1[pc];
+                    case SPLIT -> {
+                        stack.push(args2[pc], captures);
+                        pc = args1[pc];
+                    }
+                    case SAVE -> {
+                        captures = captures.clone();
+                        captures[args1[pc]] = position;
+                        pc++;
+                    }
+                    case ASSERT -> {
+                        if (!assertion(args1[pc], bytes, position)) {
+                            break follow;
+                        }
+                        pc++;
+                    }
+                    case LOOK -> {
+                        if (!looks[args1[pc]].matches(bytes, position)) {
+                            break follow;
+                        }
+                        pc++;
+                    }
+                    default -> {
+                        threads.add(pc, captures);
+                        break follow;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean assertion(final int kind, final byte[] bytes, final int position) {
+        final int length = bytes.length;
+        return switch (kind) {
+            case BEGIN_LINE -> position == 0 || bytes[position - 1] == '\n';
+            case END_LINE -> position == length || bytes[position] == '\n';
+            case BEGIN_TEXT -> position == 0;
+            case END_TEXT -> position == length;
+            case END_TEXT_OR_NEWLINE -> position == length || (position == length - 1 && bytes[position] == '\n');
+            case WORD_BOUNDARY -> isWordBoundary(bytes, position);
+            case NOT_WORD_BOUNDARY -> !isWordBoundary(bytes, position);
+            default -> throw new IllegalStateException("Unexpected assertion: " + kind);
+        };
+    }
+
+    private static boolean isWordBoundary(final byte[] bytes, final int position) {
+        final boolean before = position > 0 && isWord(codePointAt(bytes, previous(bytes, position)));
+        final boolean after = position < bytes.length && isWord(codePointAt(bytes, position));
+        return before != after;
+    }
+
+    private static boolean isWord(final int codePoint) {
+        return (codePoint >= 'a' && codePoint <= 'z')
+            || (codePoint >= 'A' && codePoint <= 'Z')
+            || (codePoint >= '0' && codePoint <= '9')
+            || codePoint == '_';
+    }
+
+    /**
+     * Gets the number of bytes of the UTF-8 character at the given position. Invalid sequences count as a single byte.
+     */
+    private static int width(final byte[] bytes, final int position) {
+        final int lead = bytes[position] & 0xFF;
+        final int width;
+        if (lead < 0x80) return 1;
+        else if (lead >= 0xC0 && lead < 0xE0) width = 2;
+        else if (lead >= 0xE0 && lead < 0xF0) width = 3;
+        else if (lead >= 0xF0 && lead < 0xF8) width = 4;
+        else return 1;
+
+        if (position + width > bytes.length) return 1;
+        for (int i = 1; i < width; i++) {
+            if ((bytes[position + i] & 0xC0) != 0x80) return 1;
+        }
+        return width;
+    }
+
+    private static int codePointAt(final byte[] bytes, final int position) {
+        final int lead = bytes[position] & 0xFF;
+        return switch (width(bytes, position)) {
+            case 2 -> ((lead & 0x1F) << 6) | (bytes[position + 1] & 0x3F);
+            case 3 -> ((lead & 0x0F) << 12) | ((bytes[position + 1] & 0x3F) << 6) | (bytes[position + 2] & 0x3F);
+            case 4 -> ((lead & 0x07) << 18) | ((bytes[position + 1] & 0x3F) << 12) | ((bytes[position + 2] & 0x3F) << 6) | (bytes[position + 3] & 0x3F);
+            default -> lead;
+        };
+    }
+
+    /**
+     * Gets the position of the UTF-8 character preceding the given position.
+     */
+    private static int previous(final byte[] bytes, final int position) {
+        int start = position - 1;
+        while (start > 0 && position - start < 4 && (bytes[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        return start + width(bytes, start) == position ? start : position - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LinearRegex{" +
+            "expression='" + expression + '\'' +
+            '}';
+    }
+
+    /**
+     * A set of code points, defined as sorted and disjoint inclusive ranges.
+     */
+    private record CharSet(int[] ranges) {
+
+        static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+        static final CharSet DIGIT = new CharSet(new int[]{'0', '9'});
+        static final CharSet WORD = new CharSet(new int[]{'0', '9', 'A', 'Z', '_', '_', 'a', 'z'});
+        static final CharSet SPACE = new CharSet(new int[]{'\t', '\r', ' ', ' '});
+        static final CharSet HEX = new CharSet(new int[]{'0', '9', 'A', 'F', 'a', 'f'});
+        static final CharSet NOT_NEWLINE = new CharSet(new int[]{'\n', '\n'}).negate();
+
+        static CharSet of(final int codePoint) {
+            return new CharSet(new int[]{codePoint, codePoint});
+        }
+
+        static CharSet of(final List<int[]> ranges) {
+            final List<int[]> sorted = new ArrayList<>(ranges);
+            sorted.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+            final List<int[]> merged = new ArrayList<>();
+            for (int[] range : sorted) {
+                if (!merged.isEmpty() && range[0] <= merged.getLast()[1] + 1) {
+                    merged.getLast()[1] = Math.max(merged.getLast()[1], range[1]);
+                } else {
+                    merged.add(new int[]{range[0], range[1]});
+                }
+            }
+            final int[] flattened = new int[merged.size() * 2];
+            for (int i = 0; i < merged.size(); i++) {
+                flattened[2 * i] = merged.get(i)[0];
+                flattened[2 * i + 1] = merged.get(i)[1];
+            }
+            return new CharSet(flattened);
+        }
+
+        CharSet negate() {
+            final List<int[]> negated = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > start) {
+                    negated.add(new int[]{start, ranges[i] - 1});
+                }
+                start = ranges[i + 1] + 1;
+            }
+            if (start <= MAX_CODE_POINT) {
+                negated.add(new int[]{start, MAX_CODE_POINT});
+            }
+            return of(negated);
+        }
+
+        void addTo(final List<int[]> ranges) {
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                ranges.add(new int[]{this.ranges[i], this.ranges[i + 1]});
+            }
+        }
+
+        boolean matches(final int codePoint) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (codePoint < ranges[i]) return false;
+                if (codePoint <= ranges[i + 1]) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A lookahead or lookbehind made of a fixed sequence of characters.
+     */
+    private record Look(boolean behind, boolean negated, CharSet[] sequence) {
+
+        boolean matches(final byte[] bytes, final int position) {
+            return negated != matchesSequence(bytes, position);
+        }
+
+        private boolean matchesSequence(final byte[] bytes, final int position) {
+            int p = position;
+            if (behind) {
+                for (int i = sequence.length - 1; i >= 0; i--) {
+                    if (p <= 0) return false;
+                    p = previous(bytes, p);
+                    if (!sequence[i].matches(codePointAt(bytes, p))) return false;
+                }
+            } else {
+                for (CharSet set : sequence) {
+                    if (p >= bytes.length) return false;
+                    if (!set.matches(codePointAt(bytes, p))) return false;
+                    p += width(bytes, p);
+                }
+            }
+            return true;
+        }
+    }
+
+    private sealed interface Node permits CharNode, AnyNode, ConcatNode, AlternateNode, RepeatNode, GroupNode, AssertNode, LookNode {
+    }
+
+    private record CharNode(CharSet set) implements Node {
+    }
+
+    private record AnyNode() implements Node {
+    }
+
+    private record ConcatNode(List<Node> nodes) implements Node {
+    }
+
+    private record AlternateNode(List<Node> nodes) implements Node {
+    }
+
+    private record RepeatNode(Node node, int min, int max, boolean lazy) implements Node {
+    }
+
+    private record GroupNode(Node node, int index) implements Node {
+    }
+
+    private record AssertNode(int kind) implements Node {
+    }
+
+    private record LookNode(Look look) implements Node {
+    }
+
+    private static final class UnsupportedExpressionException extends Exception {
+        UnsupportedExpressionException(final String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Parses the Ruby regex syntax, failing on any construct outside the supported subset.
+     */
+    private static final class Parser {
+
+        private final String src;
+        private int pos;
+        private int groups;
+        private boolean unicodeSensitive;
+
+        Parser(final String src) {
+            this.src = src;
+        }
+
+        Node parse() throws UnsupportedExpressionException {
+            final Node node = parseAlternation();
+            if (pos < src.length()) {
+                throw unsupported("unexpected character");
+            }
+            return node;
+        }
+
+        private Node parseAlternation() throws UnsupportedExpressionException {
+            final List<Node> nodes = new ArrayList<>();
+            nodes.add(parseConcat());
+            while (pos < src.length() && src.charAt(pos) == '|') {
+                pos++;
+                nodes.add(parseConcat());
+            }
+            return nodes.size() == 1 ? nodes.getFirst() : new AlternateNode(nodes);
+        }
+
+        private Node parseConcat() throws UnsupportedExpressionException {
+            final List<Node> nodes = new ArrayList<>();
+            while (pos < src.length() && src.charAt(pos) != '|' && src.charAt(pos) != ')') {
+                nodes.add(parseRepeat());
+            }
+            return nodes.size() == 1 ? nodes.getFirst() : new ConcatNode(nodes);
+        }
+
+        private Node parseRepeat() throws UnsupportedExpressionException {
+            Node node = parseAtom();
+            while (pos < src.length()) {
+                final char c = src.charAt(pos);
+                final int min;
+                final int max;
+                if (c == '*') {
+                    pos++;
+                    min = 0;
+                    max = -1;
+                } else if (c == '+') {
+                    pos++;
+                    min = 1;
+                    max = -1;
+                } else if (c == '?') {
+                    pos++;
+                    min = 0;
+                    max = 1;
+                } else if (c == '{') {
+                    final int[] bounds = parseBounds();
+                    if (bounds == null) {
+                        break; // not a quantifier, the brace is a literal.
+                    }
+                    min = bounds[0];
+                    max = bounds[1];
+                } else {
+                    break;
+                }
+
+                boolean lazy = false;
+                if (pos < src.length() && src.charAt(pos) == '?') {
+                    pos++;
+                    lazy = true;
+                } else if (pos < src.length() && src.charAt(pos) == '+') {
+                    throw unsupported("possessive quantifier");
+                }
+                node = new RepeatNode(node, min, max, lazy);
+            }
+            return node;
+        }
+
+        /**
+         * Parses {@code {n}}, {@code {n,}}, {@code {n,m}} or {@code {,m}}, or returns {@code null} without consuming input.
+         */
+        private int[] parseBounds() throws UnsupportedExpressionException {
+            final int end = src.indexOf('}', pos);
+            if (end < 0) {
+                return null;
+            }
+            final String content = src.substring(pos + 1, end);
+            if (!content.matches("\\d*(,\\d*)?") || content.isEmpty() || content.equals(",")) {
+                return null;
+            }
+            final int comma = content.indexOf(',');
+            final int min;
+            final int max;
+            if (comma < 0) {
+                min = max = bound(content);
+            } else {
+                min = comma == 0 ? 0 : bound(content.substring(0, comma));
+                max = comma == content.length() - 1 ? -1 : bound(content.substring(comma + 1));
+            }
+            if (max != -1 && max < min) {
+                throw unsupported("invalid repeat range");
+            }
+            pos = end + 1;
+            return new int[]{min, max};
+        }
+
+        private int bound(final String value) throws UnsupportedExpressionException {
+            if (value.length() > 4 || Integer.parseInt(value) > MAX_REPEAT) {
+                throw unsupported("repeat bound too large");
+            }
+            return Integer.parseInt(value);
+        }
+
+        private Node parseAtom() throws UnsupportedExpressionException {
+            final int c = src.codePointAt(pos);
+            pos += Character.charCount(c);
+            return switch (c) {
+                case '(' -> parseGroup();
+                case '[' -> new CharNode(parseClass());
+                case '.' -> new AnyNode();
+                case '^' -> new AssertNode(BEGIN_LINE);
+                case '$' -> new AssertNode(END_LINE);
+                case '\\' -> parseEscape();
+                case '*', '+', '?' -> throw unsupported("target of repeat operator is not specified");
+                default -> new CharNode(CharSet.of(c));
+            };
+        }
+
+        private Node parseGroup() throws UnsupportedExpressionException {
+            final Node node;
+            if (src.startsWith("?:", pos)) {
+                pos += 2;
+                node = parseAlternation();
+            } else if (src.startsWith("?=", pos) || src.startsWith("?!", pos)) {
+                final boolean negated = src.charAt(pos + 1) == '!';
+                pos += 2;
+                node = new LookNode(new Look(false, negated, parseLookSequence()));
+            } else if (src.startsWith("?<=", pos) || src.startsWith("?<!", pos)) {
+                final boolean negated = src.charAt(pos + 2) == '!';
+                pos += 3;
+                node = new LookNode(new Look(true, negated, parseLookSequence()));
+            } else if (src.startsWith("?<", pos)) {
+                final int end = src.indexOf('>', pos);
+                if (end < 0) {
+                    throw unsupported("invalid group name");
+                }
+                pos = end + 1;
+                final int index = ++groups;
+                node = new GroupNode(parseAlternation(), index);
+            } else if (src.startsWith("?>", pos)) {
+                pos += 2;
+                node = parseAlternation();
+                // an atomic group is only equivalent to a non-atomic one if it can match in a single way.
+                if (!isSingleWay(node)) {
+                    throw unsupported("atomic group");
+                }
+            } else if (src.startsWith("?", pos)) {
+                throw unsupported("group extension");
+            } else {
+                // plain groups are not capturing in presence of named groups.
+                node = parseAlternation();
+            }
+            if (pos >= src.length() || src.charAt(pos) != ')') {
+                throw unsupported("unclosed group");
+            }
+            pos++;
+            return node;
+        }
+
+        private static boolean isSingleWay(final Node node) {
+            return switch (node) {
+                case CharNode ignored -> true;
+                case AnyNode ignored -> true;
+                case AssertNode ignored -> true;
+                case LookNode ignored -> true;
+                case ConcatNode concat -> concat.nodes().stream().allMatch(Parser::isSingleWay);
+                case RepeatNode repeat -> repeat.min() == repeat.max() && isSingleWay(repeat.node());
+                case GroupNode group -> isSingleWay(group.node());
+                case AlternateNode ignored -> false;
+            };
+        }
+
+        private CharSet[] parseLookSequence() throws UnsupportedExpressionException {
+            final List<CharSet> sequence = new ArrayList<>();
+            while (pos < src.length() && src.charAt(pos) != ')') {
+                final Node node = parseAtom();
+                if (pos < src.length() && "*+?{".indexOf(src.charAt(pos)) >= 0) {
+                    throw unsupported("quantifier in lookaround");
+                }
+                switch (node) {
+                    case CharNode charNode -> sequence.add(charNode.set());
+                    case AnyNode ignored -> sequence.add(CharSet.NOT_NEWLINE);
+                    default -> throw unsupported("lookaround");
+                }
+            }
+            if (sequence.isEmpty()) {
+                throw unsupported("empty lookaround");
+            }
+            return sequence.toArray(CharSet[]::new);
+        }
+
+        private Node parseEscape() throws UnsupportedExpressionException {
+            if (pos >= src.length()) {
+                throw unsupported("trailing backslash");
+            }
+            final char c = src.charAt(pos);
+            return switch (c) {
+                case 'b' -> {
+                    pos++;
+                    unicodeSensitive = true;
+                    yield new AssertNode(WORD_BOUNDARY);
+                }
+                case 'B' -> {
+                    pos++;
+                    unicodeSensitive = true;
+                    yield new AssertNode(NOT_WORD_BOUNDARY);
+                }
+                case 'A' -> {
+                    pos++;
+                    yield new AssertNode(BEGIN_TEXT);
+                }
+                case 'z' -> {
+                    pos++;
+                    yield new AssertNode(END_TEXT);
+                }
+                case 'Z' -> {
+                    pos++;
+                    yield new AssertNode(END_TEXT_OR_NEWLINE);
+                }
+                default -> {
+                    final CharSet set = parseEscapeClass();
+                    yield new CharNode(set != null ? set : CharSet.of(parseEscapeChar(false)));
+                }
+            };
+        }
+
+        /**
+         * Parses an escaped character class, e.g. {@code \d}, or returns {@code null} without consuming input.
+         */
+        private CharSet parseEscapeClass() {
+            final CharSet set = switch (src.charAt(pos)) {
+                case 'd', 'D' -> CharSet.DIGIT;
+                case 'w', 'W' -> CharSet.WORD;
+                case 's', 'S' -> CharSet.SPACE;
+                case 'h', 'H' -> CharSet.HEX;
+                default -> null;
+            };
+            if (set == null) {
+                return null;
+            }
+            final char c = src.charAt(pos++);
+            if (c != 'h' && c != 'H') {
+                unicodeSensitive = true;
+            }
+            return Character.isUpperCase(c) ? set.negate() : set;
+        }
+
+        private int parseEscapeChar(final boolean inClass) throws UnsupportedExpressionException {
+            final int c = src.codePointAt(pos);
+            pos += Character.charCount(c);
+            return switch (c) {
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 'f' -> '\f';
+                case 'v' -> 0x0B;
+                case 'e' -> 0x1B;
+                case 'a' -> 0x07;
+                case 'b' -> {
+                    if (!inClass) throw unsupported("escape");
+                    yield 0x08;
+                }
+                case 'x' -> parseHexEscape();
+                case 'u' -> parseHex(4, 4);
+                default -> {
+                    if (Character.isLetterOrDigit(c)) {
+                        throw unsupported("escape \\" + Character.toString(c));
+                    }
+                    yield c;
+                }
+            };
+        }
+
+        private int parseHexEscape() throws UnsupportedExpressionException {
+            if (pos < src.length() && src.charAt(pos) == '{') {
+                final int end = src.indexOf('}', pos);
+                if (end < 0) {
+                    throw unsupported("invalid hex escape");
+                }
+                pos++;
+                final int value = parseHex(1, end - pos);
+                pos = end + 1;
+                return value;
+            }
+            final int value = parseHex(1, 2);
+            // \xHH denotes a raw byte, which is a character on its own only in the ASCII range.
+            if (value >= 0x80) {
+                throw unsupported("non-ASCII byte escape");
+            }
+            return value;
+        }
+
+        private int parseHex(final int minDigits, final int maxDigits) throws UnsupportedExpressionException {
+            int value = 0;
+            int digits = 0;
+            while (digits < maxDigits && pos < src.length() && Character.digit(src.charAt(pos), 16) >= 0) {
+                value = value * 16 + Character.digit(src.charAt(pos), 16);
+                pos++;
+                digits++;
+            }
+            if (digits < minDigits || value > CharSet.MAX_CODE_POINT) {
+                throw unsupported("invalid hex escape");
+            }
+            return value;
+        }
+
+        private CharSet parseClass() throws UnsupportedExpressionException {
+            boolean negated = false;
+            if (pos < src.length() && src.charAt(pos) == '^') {
+                negated = true;
+                pos++;
+            }
+            final List<int[]> ranges = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (pos >= src.length()) {
+                    throw unsupported("unclosed class");
+                }
+                final char c = src.charAt(pos);
+                if (c == ']') {
+                    if (first) {
+                        throw unsupported("empty class");
+                    }
+                    pos++;
+                    break;
+                }
+                if (c == '[' || src.startsWith("&&", pos)) {
+                    throw unsupported("nested class");
+                }
+                first = false;
+
+                if (c == '\\') {
+                    pos++;
+                    if (pos >= src.length()) {
+                        throw unsupported("trailing backslash");
+                    }
+                    final CharSet set = parseEscapeClass();
+                    if (set != null) {
+                        set.addTo(ranges);
+                        continue;
+                    }
+                }
+                final int low = c == '\\' ? parseEscapeChar(true) : nextCodePoint();
+                if (pos + 1 < src.length() && src.charAt(pos) == '-' && src.charAt(pos + 1) != ']') {
+                    pos++;
+                    final int high = parseClassChar();
+                    if (high < low) {
+                        throw unsupported("invalid class range");
+                    }
+                    ranges.add(new int[]{low, high});
+                } else {
+                    ranges.add(new int[]{low, low});
+                }
+            }
+            final CharSet set = CharSet.of(ranges);
+            return negated ? set.negate() : set;
+        }
+
+        private int parseClassChar() throws UnsupportedExpressionException {
+            final char c = src.charAt(pos);
+            if (c == '[') {
+                throw unsupported("nested class");
+            }
+            if (c == '\\') {
+                pos++;
+                if (pos >= src.length() || parseEscapeClass() != null) {
+                    throw unsupported("invalid class range");
+                }
+                return parseEscapeChar(true);
+            }
+            return nextCodePoint();
+        }
+
+        private int nextCodePoint() {
+            final int c = src.codePointAt(pos);
+            pos += Character.charCount(c);
+            return c;
+        }
+
+        private UnsupportedExpressionException unsupported(final String construct) {
+            return new UnsupportedExpressionException("Unsupported " + construct + " at position " + pos + ": " + src);
+        }
+    }
+
+    /**
+     * Compiles a parsed expression to instructions.
+     */
+    private static final class Compiler {
+
+        private int[] ops = new int[64];
+        private int[] args1 = new int[64];
+        private int[] args2 = new int[64];
+        private int size;
+        private final List<CharSet> sets = new ArrayList<>();
+        private final List<Look> looks = new ArrayList<>();
+
+        int add(final int op, final int arg1, final int arg2) throws UnsupportedExpressionException {
+            if (size == MAX_PROGRAM_SIZE) {
+                throw new UnsupportedExpressionException("Program too large");
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                args1 = Arrays.copyOf(args1, size * 2);
+                args2 = Arrays.copyOf(args2, size * 2);
+            }
+            ops[size] = op;
+            args1[size] = arg1;
+            args2[size] = arg2;
+            return size++;
+        }
+
+        void emit(final Node node) throws UnsupportedExpressionException {
+            switch (node) {
+                case CharNode charNode -> {
+                    final int[] ranges = charNode.set().ranges();
+                    if (ranges.length == 2 && ranges[0] == ranges[1]) {
+                        add(CHAR, ranges[0], 0);
+                    } else {
+                        sets.add(charNode.set());
+                        add(SET, sets.size() - 1, 0);
+                    }
+                }
+                case AnyNode ignored -> add(ANY, 0, 0);
+                case ConcatNode concat -> {
+                    for (Node child : concat.nodes()) {
+                        emit(child);
+                    }
+                }
+                case AlternateNode alternate -> {
+                    final List<Integer> jumps = new ArrayList<>();
+                    final List<Node> nodes = alternate.nodes();
+                    for (int i = 0; i < nodes.size(); i++) {
+                        if (i < nodes.size() - 1) {
+                            final int split = add(SPLIT, size + 1, 0);
+                            emit(nodes.get(i));
+                            jumps.add(add(JMP, 0, 0));
+                            args2[split] = size;
+                        } else {
+                            emit(nodes.get(i));
+                        }
+                    }
+                    for (int jump : jumps) {
+                        args1[jump] = size;
+                    }
+                }
+                case RepeatNode repeat -> emitRepeat(repeat);
+                case GroupNode group -> {
+                    add(SAVE, 2 * group.index(), 0);
+                    emit(group.node());
+                    add(SAVE, 2 * group.index() + 1, 0);
+                }
+                case AssertNode assertion -> add(ASSERT, assertion.kind(), 0);
+                case LookNode look -> {
+                    looks.add(look.look());
+                    add(LOOK, looks.size() - 1, 0);
+                }
+            }
+        }
+
+        private void emitRepeat(final RepeatNode repeat) throws UnsupportedExpressionException {
+            for (int i = 0; i < repeat.min(); i++) {
+                emit(repeat.node());
+            }
+            if (repeat.max() == -1) {
+                // L: split body, out; body; jmp L; out:
+                final int split = add(SPLIT, 0, 0);
+                emit(repeat.node());
+                add(JMP, split, 0);
+                setSplit(split, split + 1, size, repeat.lazy());
+            } else {
+                // nested optional copies sharing the same exit: (x(x(x)?)?)?
+                final List<Integer> splits = new ArrayList<>();
+                for (int i = repeat.min(); i < repeat.max(); i++) {
+                    splits.add(add(SPLIT, 0, 0));
+                    emit(repeat.node());
+                }
+                for (int split : splits) {
+                    setSplit(split, split + 1, size, repeat.lazy());
+                }
+            }
+        }
+
+        private void setSplit(final int split, final int body, final int out, final boolean lazy) {
+            args1[split] = lazy ? out : body;
+            args2[split] = lazy ? body : out;
+        }
+    }
+
+    /**
+     * The per-thread state of the simulation, reused across searches.
+     */
+    private static final class Machine {
+        private final Threads current;
+        private final Threads next;
+        private final Stack stack = new Stack();
+
+        Machine(final int size) {
+            this.current = new Threads(size);
+            this.next = new Threads(size);
+        }
+    }
+
+    /**
+     * An ordered list of threads, with a sparse set of the instructions visited at the current position.
+     */
+    private static final class Threads {
+        private final int[] sparse;
+        private final int[] dense;
+        private int visited;
+        private final int[] pcs;
+        private final int[][] captures;
+        private int size;
+
+        Threads(final int size) {
+            this.sparse = new int[size];
+            this.dense = new int[size];
+            this.pcs = new int[size];
+            this.captures = new int[size][];
+        }
+
+        boolean visit(final int pc) {
+            final int index = sparse[pc];
+            if (index < visited && dense[index] == pc) {
+                return false;
+            }
+            sparse[pc] = visited;
+            dense[visited++] = pc;
+            return true;
+        }
+
+        void add(final int pc, final int[] captures) {
+            this.pcs[size] = pc;
+            this.captures[size++] = captures;
+        }
+
+        void clear() {
+            Arrays.fill(captures, 0, size, null);
+            visited = 0;
+            size = 0;
+        }
+    }
+
+    private static final class Stack {
+        private int[] pcs = new int[16];
+        private int[][] captures = new int[16][];
+        private int size;
+
+        void push(final int pc, final int[] captures) {
+            if (size == pcs.length) {
+                this.pcs = Arrays.copyOf(this.pcs, size * 2);
+                this.captures = Arrays.copyOf(this.captures, size * 2);
+            }
+            this.pcs[size] = pc;
+            this.captures[size++] = captures;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.kestra.plugin.transform.grok;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@KestraTest
+class ProfileTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    public void shouldProfileEachPatternGivenSampleLines() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
+        try (final OutputStream os = Files.newOutputStream(ouputFilePath)) {
+            FileSerde.writeAll(os, Flux.just("1 unittest@kestra.io", "2 admin@kestra.io", "not an email", "3 ignored@kestra.io")).block();
+            os.flush();
+        }
+        URI uri = runContext.storage().putFile(ouputFilePath.toFile());
+
+        Profile task = Profile.builder()
+            .patterns(List.of("%{INT:id} %{EMAILADDRESS:email}", "%{WORD:word}"))
+            .from(uri.toString())
+            .maxLines(3)
+            .slowestLines(2)
+            .build();
+
+        // When
+        Profile.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getLinesTotal());
+        Assertions.assertEquals(2, output.getPatterns().size());
+
+        Profile.PatternProfile email = output.getPatterns().getFirst();
+        Assertions.assertEquals("%{INT:id} %{EMAILADDRESS:email}", email.getPattern());
+        Assertions.assertEquals(2.0 / 3, email.getHitRatio(), 0.0001);
+        Assertions.assertEquals(2, email.getCaptureGroupCount());
+        Assertions.assertNotNull(email.getMeanMatchTimeNanos());
+        Assertions.assertNotNull(email.getP99FailureTimeNanos());
+        Assertions.assertEquals(2, email.getSlowestLines().size());
+        Assertions.assertTrue(email.getRegexLength() > 0);
+
+        Profile.PatternProfile word = output.getPatterns().get(1);
+        Assertions.assertEquals(1.0, word.getHitRatio(), 0.0001);
+        Assertions.assertNull(word.getMeanFailureTimeNanos());
+    }
+}
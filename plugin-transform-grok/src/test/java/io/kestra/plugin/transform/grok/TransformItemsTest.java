@@ -5,6 +5,9 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.transform.grok.internal.AdaptiveMatchOrder;
+import io.kestra.plugin.transform.internal.Checkpoints;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @KestraTest
 class TransformItemsTest {
@@ -62,4 +66,335 @@ class TransformItemsTest {
                 Map.of("INT", "3", "HOSTNAME", "kestra.io", "EMAILLOCALPART", "no-reply", "EMAILADDRESS", "no-reply@kestra.io")
            ), items);
     }
+
+    @Test
+    public void shouldTransformGivenMultipleFilesAndMergeOutputsFalse() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI first = putFile(runContext, Flux.just("1 unittest@kestra.io", "2 admin@kestra.io"));
+        URI second = putFile(runContext, Flux.just("3 no-reply@kestra.io"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{INT:id} %{EMAILADDRESS:email}")
+            .from(List.of(first.toString(), second.toString()))
+            .mergeOutputs(false)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertNotNull(output);
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertNull(output.getUri());
+        Assertions.assertEquals(2, output.getFiles().size());
+
+        TransformItems.FileOutput firstOutput = output.getFiles().get(0);
+        Assertions.assertEquals(first, firstOutput.getFrom());
+        Assertions.assertEquals(2, firstOutput.getProcessedItemsTotal());
+        Assertions.assertEquals(
+            List.of(Map.of("id", "1", "email", "unittest@kestra.io"), Map.of("id", "2", "email", "admin@kestra.io")),
+            readAll(runContext, firstOutput.getUri())
+        );
+
+        TransformItems.FileOutput secondOutput = output.getFiles().get(1);
+        Assertions.assertEquals(second, secondOutput.getFrom());
+        Assertions.assertEquals(1, secondOutput.getProcessedItemsTotal());
+        Assertions.assertEquals(
+            List.of(Map.of("id", "3", "email", "no-reply@kestra.io")),
+            readAll(runContext, secondOutput.getUri())
+        );
+    }
+
+    @Test
+    public void shouldTransformGivenMultiMemberGzipFile() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion.gz");
+        try (final OutputStream os = Files.newOutputStream(ouputFilePath)) {
+            for (String item : List.of("1 unittest@kestra.io", "2 admin@kestra.io")) {
+                // each item is written as a separate gzip member
+                GZIPOutputStream gzip = new GZIPOutputStream(os);
+                FileSerde.write(gzip, item);
+                gzip.finish();
+            }
+        }
+        URI uri = runContext.storage().putFile(ouputFilePath.toFile());
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{INT:id} %{EMAILADDRESS:email}")
+            .from(uri.toString())
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertEquals(
+            List.of(Map.of("id", "1", "email", "unittest@kestra.io"), Map.of("id", "2", "email", "admin@kestra.io")),
+            readAll(runContext, output.getUri())
+        );
+    }
+
+    @Test
+    public void shouldResumeFromCheckpointGivenCheckpointInterval() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of(Map.of(
+            "flow", Map.of("id", "grok", "namespace", "io.kestra.tests"),
+            "execution", Map.of("id", IdUtils.create()),
+            "taskrun", Map.of("id", IdUtils.create())
+        ));
+
+        URI uri = putFile(runContext, Flux.just("1 unittest@kestra.io", "2 admin@kestra.io", "3 no-reply@kestra.io"));
+
+        // simulate a previous attempt that already flushed the first item
+        URI partition = putFile(runContext, Flux.just(Map.of("id", "previous")));
+        Checkpoints checkpoints = Checkpoints.of(runContext, 0).orElseThrow();
+        checkpoints.save(Checkpoints.Checkpoint.EMPTY.next(1, 1, partition));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{INT:id} %{EMAILADDRESS:email}")
+            .from(uri.toString())
+            .checkpointInterval(1)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertEquals(
+            List.of(
+                Map.of("id", "previous"),
+                Map.of("id", "2", "email", "admin@kestra.io"),
+                Map.of("id", "3", "email", "no-reply@kestra.io")
+            ),
+            readAll(runContext, output.getUri())
+        );
+        Assertions.assertEquals(Checkpoints.Checkpoint.EMPTY, checkpoints.load());
+    }
+
+    @Test
+    public void shouldFailGivenCheckpointIntervalWithRoutedSideOutputs() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just("42", "abc"));
+
+        TransformItems.TransformItemsBuilder<?, ?> builder = TransformItems.builder()
+            .pattern("%{INT:value:int}")
+            .from(uri.toString())
+            .checkpointInterval(1);
+
+        // When - Then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.onError(TransformItems.OnError.ROUTE).build().run(runContext));
+        builder.onError(TransformItems.OnError.FAIL);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.onUnmatched(TransformItems.OnUnmatched.ROUTE).build().run(runContext));
+        builder.onUnmatched(TransformItems.OnUnmatched.KEEP);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.distinctBy(List.of("value")).build().run(runContext));
+    }
+
+    @Test
+    public void shouldRouteFailedItemsGivenOnErrorRoute() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just("42", "abc", "7"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{WORD:value:int}")
+            .from(uri.toString())
+            .onError(TransformItems.OnError.ROUTE)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getFailedItemsTotal());
+        Assertions.assertEquals(List.of(Map.of("value", 42), Map.of("value", 7)), readAll(runContext, output.getUri()));
+
+        List<Map> errors = readAll(runContext, output.getErrorsUri());
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals("abc", errors.getFirst().get("item"));
+        Assertions.assertNotNull(errors.getFirst().get("error"));
+    }
+
+    @Test
+    public void shouldRouteFailedItemsGivenTextNotEncodableInCharset() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just("caf\u00e9", "10 \u20ac"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{GREEDYDATA:value}")
+            .charset("ISO-8859-1")
+            .from(uri.toString())
+            .onError(TransformItems.OnError.ROUTE)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(1, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getFailedItemsTotal());
+        Assertions.assertEquals(List.of(Map.of("value", "caf\u00e9")), readAll(runContext, output.getUri()));
+        Assertions.assertEquals("10 \u20ac", readAll(runContext, output.getErrorsUri()).getFirst().get("item"));
+    }
+
+    @Test
+    public void shouldCaptureSameValuesGivenLinearMatching() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just(
+            "127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] \"GET /apache_pb.gif HTTP/1.0\" 200 2326",
+            "2024-01-15T08:30:45.123+02:00 WARN Connection refused to 10.0.0.12:5432",
+            "user.name+tag@sub.example.org",
+            "no match here"
+        ));
+
+        TransformItems.TransformItemsBuilder<?, ?> builder = TransformItems.builder()
+            .patterns(List.of(
+                "%{IPORHOST:client} %{USER:ident} %{USER:auth} \\[%{HTTPDATE:timestamp}\\] \"%{WORD:verb} %{NOTSPACE:request} HTTP/%{NUMBER:version}\" %{INT:status:int} %{INT:bytes:long}",
+                "%{TIMESTAMP_ISO8601:timestamp} %{LOGLEVEL:level} %{GREEDYDATA:message}",
+                "%{EMAILADDRESS:email}"
+            ))
+            .from(uri.toString());
+
+        // When
+        TransformItems.Output joni = builder.linearMatching(false).build().run(runContext);
+        TransformItems.Output linear = builder.linearMatching(true).build().run(runContext);
+
+        // Then
+        Assertions.assertEquals(readAll(runContext, joni.getUri()), readAll(runContext, linear.getUri()));
+        Assertions.assertEquals(joni.getMatchedItemsTotal(), linear.getMatchedItemsTotal());
+    }
+
+    @Test
+    public void shouldFailGivenMaxErrorRatioExceeded() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just("42", "abc", "def"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{WORD:value:int}")
+            .from(uri.toString())
+            .onError(TransformItems.OnError.SKIP)
+            .maxErrorRatio(0.5)
+            .build();
+
+        // When - Then
+        Assertions.assertThrows(IllegalStateException.class, () -> task.run(runContext));
+    }
+
+    @Test
+    public void shouldRouteUnmatchedItemsGivenOnUnmatchedRoute() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI uri = putFile(runContext, Flux.just("1 unittest@kestra.io", "not an email", "2 admin@kestra.io"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{INT:id} %{EMAILADDRESS:email}")
+            .from(uri.toString())
+            .onUnmatched(TransformItems.OnUnmatched.ROUTE)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertEquals(2, output.getMatchedItemsTotal());
+        Assertions.assertEquals(1, output.getUnmatchedItemsTotal());
+        Assertions.assertEquals(
+            List.of(Map.of("id", "1", "email", "unittest@kestra.io"), Map.of("id", "2", "email", "admin@kestra.io")),
+            readAll(runContext, output.getUri())
+        );
+
+        try (InputStream is = runContext.storage().getFile(output.getUnmatchedUri())) {
+            List<String> unmatched = FileSerde.readAll(is, new TypeReference<String>() {}).collectList().block();
+            Assertions.assertEquals(List.of("not an email"), unmatched);
+        }
+    }
+
+    @Test
+    public void shouldDropDuplicatesGivenDistinctBy() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+
+        URI first = putFile(runContext, Flux.just("1 unittest@kestra.io", "2 admin@kestra.io", "1 unittest@kestra.io"));
+        URI second = putFile(runContext, Flux.just("2 admin@kestra.io", "3 admin@kestra.io"));
+
+        TransformItems task = TransformItems.builder()
+            .pattern("%{INT:id} %{EMAILADDRESS:email}")
+            .from(List.of(first.toString(), second.toString()))
+            .distinctBy(List.of("id"))
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertEquals(2, output.getDuplicateItemsTotal());
+        Assertions.assertEquals(
+            List.of(
+                Map.of("id", "1", "email", "unittest@kestra.io"),
+                Map.of("id", "2", "email", "admin@kestra.io"),
+                Map.of("id", "3", "email", "admin@kestra.io")
+            ),
+            readAll(runContext, output.getUri())
+        );
+    }
+
+    @Test
+    public void shouldLearnMatchOrderGivenAdaptiveMatchOrderAndMultipleRuns() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of(Map.of(
+            "flow", Map.of("id", "grok-adaptive", "namespace", "io.kestra.tests")
+        ));
+        URI uri = putFile(runContext, Flux.just("foo", "bar", "baz"));
+
+        List<String> patterns = List.of("%{INT:id}", "%{WORD:word}");
+        TransformItems task = TransformItems.builder()
+            .id("grok")
+            .patterns(patterns)
+            .anchored(true)
+            .matchOrder(GrokInterface.MatchOrder.ADAPTIVE)
+            .from(uri.toString())
+            .build();
+        Assertions.assertArrayEquals(new int[]{0, 1}, AdaptiveMatchOrder.load(runContext, "grok", patterns).order());
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            task.run(runContext);
+        }
+
+        // Then
+        Assertions.assertArrayEquals(new int[]{1, 0}, AdaptiveMatchOrder.load(runContext, "grok", patterns).order());
+    }
+
+    private static URI putFile(final RunContext runContext, final Flux<?> items) throws Exception {
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
+        try (final OutputStream os = Files.newOutputStream(ouputFilePath)) {
+            FileSerde.writeAll(os, items).block();
+            os.flush();
+        }
+        return runContext.storage().putFile(ouputFilePath.toFile());
+    }
+
+    private static List<Map> readAll(final RunContext runContext, final URI uri) throws Exception {
+        try (InputStream is = runContext.storage().getFile(uri)) {
+            return FileSerde.readAll(is, new TypeReference<Map>() {}).collectList().block();
+        }
+    }
 }
\ No newline at end of file
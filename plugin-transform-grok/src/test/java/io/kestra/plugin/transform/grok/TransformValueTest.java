@@ -3,6 +3,7 @@ package io.kestra.plugin.transform.grok;
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.transform.grok.internal.AdaptiveMatchOrder;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -69,6 +70,24 @@ class TransformValueTest {
         );
     }
 
+    @Test
+    public void shouldTransformGivenFields() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        TransformValue task = TransformValue.builder()
+            .pattern("%{EMAILADDRESS}")
+            .namedCapturesOnly(false)
+            .fields(List.of("HOSTNAME"))
+            .from("unit-test@kestra.io")
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(Map.of("HOSTNAME", "kestra.io"), output.getValue());
+    }
+
     @Test
     public void shouldTransformGivenSinglePatternAndCapturesOnlyTrue() throws Exception {
         // Given
@@ -130,4 +149,29 @@ class TransformValueTest {
             output.getValue()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotLearnMatchOrderGivenAdaptiveMatchOrder() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of(Map.of(
+            "flow", Map.of("id", "grok-adaptive-value", "namespace", "io.kestra.tests")
+        ));
+
+        List<String> patterns = List.of("%{INT:id}", "%{WORD:word}");
+        TransformValue task = TransformValue.builder()
+            .id("grok")
+            .patterns(patterns)
+            .anchored(true)
+            .matchOrder(GrokInterface.MatchOrder.ADAPTIVE)
+            .from("foo")
+            .build();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(Map.of("word", "foo"), task.run(runContext).getValue());
+        }
+
+        // Then
+        Assertions.assertArrayEquals(new int[]{0, 1}, AdaptiveMatchOrder.load(runContext, "grok", patterns).order());
+    }
+}
@@ -0,0 +1,81 @@
+package io.kestra.plugin.transform.grok.data.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+class TimestampParserTest {
+
+    @Test
+    public void shouldParseGivenIso8601() {
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 15, 8, 30, 45, 123_000_000, ZoneOffset.ofHours(2)),
+            TimestampParser.parse("2024-01-15T08:30:45.123+02:00", null)
+        );
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 15, 8, 30, 45, 123_000_000, ZoneOffset.UTC),
+            TimestampParser.parse("2024-01-15 08:30:45,123", null)
+        );
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 15, 8, 30, 0, 0, ZoneOffset.UTC),
+            TimestampParser.parse("2024-01-15T08:30Z", null)
+        );
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 15, 0, 0, 0, 0, ZoneOffset.UTC),
+            TimestampParser.parse("2024-01-15", null)
+        );
+    }
+
+    @Test
+    public void shouldParseGivenHttpDates() {
+        Assertions.assertEquals(
+            ZonedDateTime.of(2000, 10, 10, 13, 55, 36, 0, ZoneOffset.ofHours(-7)),
+            TimestampParser.parse("10/Oct/2000:13:55:36 -0700", null)
+        );
+        Assertions.assertEquals(
+            ZonedDateTime.of(1994, 11, 15, 8, 12, 31, 0, ZoneOffset.UTC),
+            TimestampParser.parse("Tue, 15 Nov 1994 08:12:31 GMT", null)
+        );
+    }
+
+    @Test
+    public void shouldParseGivenSyslogTimestampInPastYear() {
+        final ZonedDateTime parsed = TimestampParser.parse("Jan  5 14:03:22", null);
+        Assertions.assertEquals(1, parsed.getMonthValue());
+        Assertions.assertEquals(5, parsed.getDayOfMonth());
+        Assertions.assertEquals(14, parsed.getHour());
+        Assertions.assertFalse(parsed.isAfter(ZonedDateTime.now(ZoneOffset.UTC).plusDays(1)));
+    }
+
+    @Test
+    public void shouldParseGivenSyslogTimestampAndClock() {
+        final Clock clock = Clock.fixed(Instant.parse("2024-01-02T00:00:00Z"), ZoneOffset.UTC);
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 1, 14, 3, 22, 0, ZoneOffset.UTC),
+            TimestampParser.parse("Jan  1 14:03:22", null, clock)
+        );
+        // a line logged in December and read in January belongs to the previous year.
+        Assertions.assertEquals(
+            ZonedDateTime.of(2023, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC),
+            TimestampParser.parse("Dec 31 23:59:59", null, clock)
+        );
+    }
+
+    @Test
+    public void shouldParseGivenCustomFormat() {
+        Assertions.assertEquals(
+            ZonedDateTime.of(2024, 1, 15, 8, 30, 45, 0, ZoneOffset.UTC),
+            TimestampParser.parse("15.01.2024 08:30:45", "dd.MM.yyyy HH:mm:ss")
+        );
+    }
+
+    @Test
+    public void shouldThrowGivenUnknownFormat() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TimestampParser.parse("yesterday", null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TimestampParser.parse("2024-01-15", "dd.MM.yyyy"));
+    }
+}
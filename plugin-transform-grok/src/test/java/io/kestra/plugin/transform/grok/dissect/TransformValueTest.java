@@ -0,0 +1,53 @@
+package io.kestra.plugin.transform.grok.dissect;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+@KestraTest
+class TransformValueTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    public void shouldTransformGivenPattern() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        TransformValue task = TransformValue.builder()
+            .pattern("%{date} %{+date} %{action} src=%{src} port=%{port:int}")
+            .appendSeparator(" ")
+            .from("2024-01-01 12:00:00 DENY src=10.0.0.1 port=443")
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(
+            Map.of("date", "2024-01-01 12:00:00", "action", "DENY", "src", "10.0.0.1", "port", 443),
+            output.getValue()
+        );
+    }
+
+    @Test
+    public void shouldReturnEmptyValueGivenUnmatchedText() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        TransformValue task = TransformValue.builder()
+            .pattern("%{a},%{b}")
+            .from("unmatched")
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(Map.of(), output.getValue());
+    }
+}
@@ -0,0 +1,51 @@
+package io.kestra.plugin.transform.grok.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class AdaptiveMatchOrderTest {
+
+    @Test
+    public void shouldReorderPatternsGivenHits() {
+        final AdaptiveMatchOrder order = new AdaptiveMatchOrder(List.of("A", "B", "C"), new long[3], null, null);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, order.order());
+
+        for (int i = 0; i < AdaptiveMatchOrder.REORDER_INTERVAL - 1; i++) {
+            order.onMatch(i % 10 == 0 ? 1 : 2);
+        }
+        // the order is only recomputed every REORDER_INTERVAL matches.
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, order.order());
+
+        order.onMatch(2);
+        Assertions.assertArrayEquals(new int[]{2, 1, 0}, order.order());
+    }
+
+    @Test
+    public void shouldAdaptGivenChangingDistributionAfterManyHits() {
+        final AdaptiveMatchOrder order = new AdaptiveMatchOrder(List.of("A", "B", "C"), new long[]{1_000_000, 0, 0}, null, null);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, order.order());
+
+        // the learned hits decay, so that a pattern matching all the recent texts is tried first.
+        for (int i = 0; i < 20 * AdaptiveMatchOrder.REORDER_INTERVAL; i++) {
+            order.onMatch(1);
+        }
+        Assertions.assertEquals(1, order.order()[0]);
+    }
+
+    @Test
+    public void shouldMergeHitsGivenConcurrentRuns() {
+        final AdaptiveMatchOrder order = new AdaptiveMatchOrder(List.of("A", "B", "C"), new long[]{10, 5, 0}, null, null);
+        order.onMatch(2);
+
+        // a concurrent run recorded 3 more hits on A since this run loaded the hits.
+        Assertions.assertArrayEquals(new long[]{13, 5, 1}, order.merge(new long[]{13, 5, 0}));
+    }
+
+    @Test
+    public void shouldStartFromGivenHits() {
+        final AdaptiveMatchOrder order = new AdaptiveMatchOrder(List.of("A", "B", "C"), new long[]{1, 5, 5}, null, null);
+        Assertions.assertArrayEquals(new int[]{1, 2, 0}, order.order());
+    }
+}
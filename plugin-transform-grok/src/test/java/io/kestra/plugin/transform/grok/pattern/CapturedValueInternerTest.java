@@ -0,0 +1,44 @@
+package io.kestra.plugin.transform.grok.pattern;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+class CapturedValueInternerTest {
+
+    @Test
+    public void shouldReturnSameInstanceGivenSameBytes() {
+        final CapturedValueInterner interner = new CapturedValueInterner();
+        final byte[] first = "level=INFO".getBytes(StandardCharsets.UTF_8);
+        final byte[] second = "INFO!".getBytes(StandardCharsets.UTF_8);
+
+        final String value = interner.intern(first, 6, 4);
+        Assertions.assertEquals("INFO", value);
+        Assertions.assertSame(value, interner.intern(second, 0, 4));
+        Assertions.assertEquals("INFO!", interner.intern(second, 0, 5));
+    }
+
+    @Test
+    public void shouldDisableGivenHighCardinalityValues() {
+        final CapturedValueInterner interner = new CapturedValueInterner();
+        for (int i = 0; i < CapturedValueInterner.SAMPLE_SIZE; i++) {
+            final byte[] bytes = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+            Assertions.assertEquals(String.valueOf(i), interner.intern(bytes, 0, bytes.length));
+        }
+        Assertions.assertFalse(interner.isEnabled());
+    }
+
+    @Test
+    public void shouldShareCapturedValuesAcrossLines() {
+        final GrokMatcher matcher = new GrokPatternCompiler(new GrokPatternResolver(), true)
+            .compile("%{LOGLEVEL:level} %{GREEDYDATA:message}");
+
+        final Map<String, Object> first = matcher.captures("ERROR first".getBytes(StandardCharsets.UTF_8));
+        final Map<String, Object> second = matcher.captures("ERROR second".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("ERROR", second.get("level"));
+        Assertions.assertSame(first.get("level"), second.get("level"));
+        Assertions.assertEquals("second", second.get("message"));
+    }
+}
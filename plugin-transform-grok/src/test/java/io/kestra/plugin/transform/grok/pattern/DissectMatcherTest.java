@@ -0,0 +1,42 @@
+package io.kestra.plugin.transform.grok.pattern;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+class DissectMatcherTest {
+
+    @Test
+    public void shouldCaptureGivenDelimitedFields() {
+        final DissectMatcher matcher = new DissectMatcher("%{clientip} - %{user} [%{timestamp}] %{status:int}", "");
+        final Map<String, Object> captured = matcher.captures("127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] 200".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(
+            Map.of("clientip", "127.0.0.1", "user", "frank", "timestamp", "10/Oct/2000:13:55:36 -0700", "status", 200),
+            captured
+        );
+    }
+
+    @Test
+    public void shouldHandleModifiers() {
+        final DissectMatcher matcher = new DissectMatcher("[%{ts}] %{level->} %{?thread} %{+ts} %{}|%{message}", " ");
+        final Map<String, Object> captured = matcher.captures("[2024-01-01] INFO    main 12:00:00 x|hello world".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(
+            Map.of("ts", "2024-01-01 12:00:00", "level", "INFO", "message", "hello world"),
+            captured
+        );
+    }
+
+    @Test
+    public void shouldReturnNullGivenUnmatchedText() {
+        final DissectMatcher matcher = new DissectMatcher("%{a},%{b}]", "");
+        Assertions.assertNull(matcher.captures("no-delimiter".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertNull(matcher.captures("a,b".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void shouldThrowGivenFieldsWithoutDelimiter() {
+        Assertions.assertThrows(GrokException.class, () -> new DissectMatcher("%{a}%{b}", ""));
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Map;
 
 class GrokMatcherTest {
@@ -36,4 +38,66 @@ class GrokMatcherTest {
         Assertions.assertEquals("test@kestra.io", captured.get("EMAILADDRESS"));
         Assertions.assertEquals("test", captured.get("EMAILLOCALPART"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMatchWholeTextGivenAnchoredPattern() {
+        for (boolean linearMatching : new boolean[]{true, false}) {
+            final GrokPatternCompiler compiler = new GrokPatternCompiler(new GrokPatternResolver(), true, linearMatching);
+            final GrokMatcher matcher = compiler.compile("%{INT:code} %{WORD:status}", true);
+            Assertions.assertEquals(linearMatching, matcher.isLinear());
+            Assertions.assertEquals(Map.of("code", "200", "status", "OK"), matcher.captures("200 OK".getBytes(StandardCharsets.UTF_8)));
+            Assertions.assertNull(matcher.captures("HTTP 200 OK".getBytes(StandardCharsets.UTF_8)));
+            Assertions.assertNull(matcher.captures("200 OK!".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void shouldMatchWithoutConvertingCapturedValues() {
+        for (boolean linearMatching : new boolean[]{true, false}) {
+            final GrokPatternCompiler compiler = new GrokPatternCompiler(new GrokPatternResolver(), true, linearMatching);
+            final GrokMatcher matcher = compiler.compile("%{WORD:value:int}", true);
+            // the captured value can't be converted to an integer, but the text matches.
+            Assertions.assertTrue(matcher.matches("abc".getBytes(StandardCharsets.UTF_8)));
+            Assertions.assertFalse(matcher.matches("abc def".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void shouldConvertCapturedValuesGivenTypedSemantic() {
+        final GrokMatcher matcher = compiler.compile("%{INT:id:int} %{NUMBER:ratio:float} %{INT:code} %{WORD:ok:boolean}");
+        final Map<String, Object> captured = matcher.captures("42 0.5 200 true".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(42, captured.get("id"));
+        Assertions.assertEquals(0.5f, captured.get("ratio"));
+        // untyped captures are kept as strings.
+        Assertions.assertEquals("200", captured.get("code"));
+        Assertions.assertEquals(true, captured.get("ok"));
+    }
+
+    @Test
+    public void shouldConvertCapturedValuesGivenTimestampType() {
+        final GrokMatcher matcher = compiler.compile("\\[%{HTTPDATE:ts:timestamp}\\] %{DATA:day:timestamp:yyyy/MM/dd} %{INT:status:int}");
+        final Map<String, Object> captured = matcher.captures("[10/Oct/2000:13:55:36 -0700] 2024/01/15 200".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(ZonedDateTime.of(2000, 10, 10, 13, 55, 36, 0, ZoneOffset.ofHours(-7)), captured.get("ts"));
+        Assertions.assertEquals(ZonedDateTime.of(2024, 1, 15, 0, 0, 0, 0, ZoneOffset.UTC), captured.get("day"));
+        Assertions.assertEquals(200, captured.get("status"));
+    }
+
+    @Test
+    public void shouldMatchGivenSingleByteCharset() {
+        final GrokPatternCompiler compiler = new GrokPatternCompiler(new GrokPatternResolver(), true, true, null, StandardCharsets.ISO_8859_1);
+        final GrokMatcher matcher = compiler.compile("%{NOTSPACE:user} %{WORD:action} %{GREEDYDATA:message}");
+
+        final byte[] bytes = "José logged in from Zürich".getBytes(StandardCharsets.ISO_8859_1);
+        Assertions.assertEquals(bytes.length, "José logged in from Zürich".length());
+        final Map<String, Object> captured = matcher.captures(bytes);
+        Assertions.assertEquals("José", captured.get("user"));
+        Assertions.assertEquals("logged", captured.get("action"));
+        Assertions.assertEquals("in from Zürich", captured.get("message"));
+    }
+
+    @Test
+    public void shouldThrowGivenNonAsciiCompatibleCharset() {
+        final GrokPatternCompiler compiler = new GrokPatternCompiler(new GrokPatternResolver(), true, true, null, StandardCharsets.UTF_16);
+        Assertions.assertThrows(GrokException.class, () -> compiler.compile("%{WORD:action}"));
+    }
+}
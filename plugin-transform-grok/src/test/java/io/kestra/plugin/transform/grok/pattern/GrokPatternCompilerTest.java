@@ -7,10 +7,13 @@ import io.kestra.plugin.transform.grok.pattern.GrokPatternCompiler;
 import io.kestra.plugin.transform.grok.pattern.GrokPatternResolver;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class GrokPatternCompilerTest {
@@ -76,4 +79,37 @@ public class GrokPatternCompilerTest {
         Assertions.assertNotNull(matcher);
         Assertions.assertEquals("(?<email>^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$)", matcher.expression());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReuseExpansionGivenRepeatedReferences() {
+        final GrokMatcher matcher = compiler.compile("%{INT:a} %{INT:b} %{INT}");
+        Assertions.assertEquals("(?<a>(?:[+-]?(?:[0-9]+))) (?<b>(?:[+-]?(?:[0-9]+))) (?<INT>(?:[+-]?(?:[0-9]+)))", matcher.expression());
+    }
+
+    @Test
+    public void shouldThrowGivenCircularPatternDefinitions() {
+        final GrokPatternCompiler compiler = new GrokPatternCompiler(
+            new GrokPatternResolver(
+                LoggerFactory.getLogger(GrokPatternCompilerTest.class),
+                Map.of("SELF", "a%{SELF}", "FIRST", "%{SECOND}", "SECOND", "x%{FIRST}"),
+                List.of()
+            ),
+            false
+        );
+        GrokException e = Assertions.assertThrows(GrokException.class, () -> compiler.compile("%{SELF}"));
+        Assertions.assertEquals("Circular reference detected in grok pattern definitions: SELF -> SELF", e.getMessage());
+
+        e = Assertions.assertThrows(GrokException.class, () -> compiler.compile("%{FIRST}"));
+        Assertions.assertEquals("Circular reference detected in grok pattern definitions: FIRST -> SECOND -> FIRST", e.getMessage());
+    }
+
+    @Test
+    public void shouldCompileNonProjectedGroupsToNonCapturingGroups() {
+        final GrokPatternCompiler compiler = new GrokPatternCompiler(new GrokPatternResolver(), false, true, Set.of("timezone", "rest"));
+        final GrokMatcher matcher = compiler.compile("%{ISO8601_TIMEZONE:timezone} %{INT:code} (?<rest>.*) (?<other>[(?<x>])");
+        Assertions.assertEquals("(?<timezone>(?:Z|[+-](?:(?:2[0123]|[01]?[0-9]))(?::?(?:(?:[0-5][0-9]))))) (?:(?:[+-]?(?:[0-9]+))) (?<rest>.*) (?:[(?<x>])", matcher.expression());
+
+        final Map<String, Object> captured = matcher.captures("+02:00 42 message x (".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(Map.of("timezone", "+02:00", "rest", "message x"), captured);
+    }
+}
@@ -0,0 +1,209 @@
+package io.kestra.plugin.transform.jsonata;
+
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.api.jsonata4java.expressions.Expressions;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.tasks.Output;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.transform.internal.CompressedInputStreams;
+import io.kestra.plugin.transform.jsonata.internal.GroupAggregator;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Group the items of a file by key, and reduce the items of each group using JSONata expressions.",
+    description = """
+        Each item is folded into the partial state of its group by evaluating the `expression` against an object holding \
+        the group `key`, the current `accumulator` (undefined for the first item of a group), and the `item`. \
+        The output file contains the final state of each group, sorted by key: numbers by value, strings lexicographically, \
+        and the group of items for which the key is undefined last.
+        The partial states are held in memory up to `maxMemorySize`, then spilled to disk as sorted runs that are merged at the end, \
+        using the `combiner` expression, so that files with many distinct keys can be grouped within a bounded amount of memory.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Compute the number of orders and the total amount of each customer.",
+            full = true,
+            code = """
+                id: jsonata-group-by
+                namespace: company.team
+                tasks:
+                  - id: group
+                    type: io.kestra.plugin.transform.jsonata.GroupItems
+                    from: "{{ outputs.extract.uri }}"
+                    key: customer_id
+                    expression: |
+                      {
+                        "customer_id": key,
+                        "orders": $sum([accumulator.orders, 1]),
+                        "total": $sum([accumulator.total, item.amount])
+                      }
+                    combiner: |
+                      {
+                        "customer_id": key,
+                        "orders": accumulator.orders + partial.orders,
+                        "total": accumulator.total + partial.total
+                      }
+                """
+        )
+    }
+)
+public class GroupItems extends Transform implements RunnableTask<Output> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String KEY_FIELD = "key";
+    private static final String ACCUMULATOR_FIELD = "accumulator";
+    private static final String ITEM_FIELD = "item";
+    private static final String PARTIAL_FIELD = "partial";
+
+    @Schema(
+        title = "The file to be grouped.",
+        description = "Must be a `kestra://` internal storage URI. Gzip compressed files are decompressed on the fly."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String from;
+
+    @Schema(
+        title = "The JSONata expression computing the group key of each item.",
+        description = "Items for which the key is undefined are grouped together, under a `null` key."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String key;
+
+    @Schema(
+        title = "The JSONata expression combining two partial states of the same group.",
+        description = "The expression is evaluated against an object holding the group `key`, and the `accumulator` and `partial` states to combine. " +
+            "It is only used when the partial states exceed `maxMemorySize` and are spilled to disk; without it, the task fails instead."
+    )
+    @PluginProperty(dynamic = true)
+    private String combiner;
+
+    @Schema(
+        title = "The maximum estimated size, in bytes, of the partial states held in memory.",
+        description = "Above this size, the partial states are sorted by key and spilled to disk, then merged at the end. " +
+            "The task fails if the partial state of a single group exceeds this size."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Long maxMemorySize = 64L * 1024 * 1024;
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+
+        init(runContext);
+
+        final URI from = URI.create(runContext.render(this.from));
+        final Expressions keyExpressions = parseExpression(runContext.render(this.key));
+        final Expressions combinerExpressions = this.combiner != null ? parseExpression(runContext.render(this.combiner)) : null;
+
+        final GroupAggregator.Reducer reducer = (key, accumulator, item) -> evaluateExpression(context(key, accumulator, ITEM_FIELD, item));
+        final GroupAggregator.Reducer stateCombiner = combinerExpressions != null
+            ? (key, accumulator, partial) -> evaluateExpression(combinerExpressions, context(key, accumulator, PARTIAL_FIELD, partial))
+            : null;
+
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
+        try (GroupAggregator aggregator = new GroupAggregator(runContext.workingDir().path(), maxMemorySize, reducer, stateCombiner)) {
+            final Long processedItemsTotal;
+            try (InputStream is = CompressedInputStreams.decompressIfNeeded(runContext.storage().getFile(from))) {
+                processedItemsTotal = FileSerde.readAll(is, new TypeReference<JsonNode>() {
+                    })
+                    .doOnNext(throwConsumer(item -> aggregator.add(evaluateExpression(keyExpressions, item), item)))
+                    .count()
+                    .block();
+            }
+
+            final long groupsTotal;
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(ouputFilePath), BUFFER_SIZE)) {
+                groupsTotal = aggregator.writeAll(os);
+            }
+
+            runContext.metric(Counter.of("groups", groupsTotal));
+            runContext.metric(Counter.of("spilled.runs", aggregator.spilledRunsTotal()));
+
+            // output
+            return Output
+                .builder()
+                .uri(runContext.storage().putFile(ouputFilePath.toFile()))
+                .processedItemsTotal(processedItemsTotal)
+                .groupsTotal(groupsTotal)
+                .spilledRunsTotal(aggregator.spilledRunsTotal())
+                .build();
+        } finally {
+            Files.deleteIfExists(ouputFilePath);
+        }
+    }
+
+    private static JsonNode context(final JsonNode key, final JsonNode accumulator, final String valueField, final JsonNode value) {
+        final ObjectNode context = JsonNodeFactory.instance.objectNode();
+        context.set(KEY_FIELD, key);
+        // an undefined accumulator lets expressions such as `$sum([accumulator.total, item.amount])` handle the first item.
+        if (accumulator != null) {
+            context.set(ACCUMULATOR_FIELD, accumulator);
+        }
+        context.set(valueField, value);
+        return context;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "File URI containing the final state of each group, sorted by key."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "The total number of items that was processed by the task."
+        )
+        private final Long processedItemsTotal;
+
+        @Schema(
+            title = "The total number of groups."
+        )
+        private final Long groupsTotal;
+
+        @Schema(
+            title = "The number of sorted runs spilled to disk as the partial states exceeded `maxMemorySize`."
+        )
+        private final Long spilledRunsTotal;
+    }
+}
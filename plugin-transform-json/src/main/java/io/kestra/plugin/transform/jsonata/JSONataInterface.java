@@ -3,11 +3,25 @@ package io.kestra.plugin.transform.jsonata;
 import io.kestra.core.models.annotations.PluginProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.Map;
 
 public interface JSONataInterface {
 
     @PluginProperty(dynamic = true)
-    @Schema(title = "The JSONata expression to apply on the JSON object.")
+    @Schema(
+        title = "The JSONata expression to apply on the JSON object.",
+        description = """
+            Besides the JSONata built-in functions, the following functions implemented in Java are available:
+            - `$sha256(str)`: the hex-encoded SHA-256 digest of a string.
+            - `$uuid()`: a random UUID.
+            - `$parseTimestamp(str[, pattern[, zone]])`: the milliseconds since the epoch of an ISO-8601 timestamp, or of a timestamp in the given Java `DateTimeFormatter` pattern, in the given zone if it has no offset (UTC by default).
+            - `$formatTimestamp(millis[, pattern[, zone]])`: milliseconds since the epoch formatted as an ISO-8601 timestamp, or in the given Java `DateTimeFormatter` pattern, in the given zone (UTC by default).
+            """
+    )
     @NotNull
     String getExpression();
 
@@ -15,4 +29,39 @@ public interface JSONataInterface {
     @Schema(title = "The maximum number of recursive calls allowed for the JSONata transformation.")
     @NotNull
     Integer getMaxDepth();
+
+    @PluginProperty
+    @Schema(
+        title = "Reference datasets to enrich the items with, by name.",
+        description = """
+            Each dataset is loaded once per run into a lookup table indexed by its `key` field, and bound to the expressions \
+            as a variable named after the dataset, so that an entry is accessed in constant time with the `$lookup()` function, \
+            e.g. `$lookup($catalog, product_id)`. Keys are the text value of the `key` field: use `$string()` to look up numeric keys.
+            The whole dataset is held in memory, so lookups are meant for small reference datasets, such as a country-code table or a product catalog.
+            """
+    )
+    Map<String, Lookup> getLookups();
+
+    @Builder
+    @Getter
+    @Jacksonized
+    class Lookup {
+        @PluginProperty(dynamic = true)
+        @Schema(
+            title = "The file containing the entries of the dataset.",
+            description = "Must be a `kestra://` internal storage URI. Files with a `.json` extension are read as a JSON array of entries, " +
+                "files with a `.jsonl` or `.ndjson` extension as newline-delimited JSON, and other files as ION. " +
+                "Gzip compressed files are decompressed on the fly."
+        )
+        @NotNull
+        private final String from;
+
+        @PluginProperty(dynamic = true)
+        @Schema(
+            title = "The name of the field whose value is the key of an entry.",
+            description = "Entries without this field are ignored, and the last entry of a key wins."
+        )
+        @NotNull
+        private final String key;
+    }
 }
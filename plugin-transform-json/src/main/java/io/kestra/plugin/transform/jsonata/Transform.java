@@ -5,12 +5,15 @@ import com.api.jsonata4java.expressions.Expressions;
 import com.api.jsonata4java.expressions.ParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.kestra.core.models.tasks.Output;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.internal.CompressedInputStreams;
+import io.kestra.plugin.transform.jsonata.internal.JavaFunctions;
+import io.kestra.plugin.transform.jsonata.internal.LookupTables;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -20,8 +23,15 @@ import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
 
 @SuperBuilder
 @ToString
@@ -32,32 +42,112 @@ public abstract class Transform extends Task implements JSONataInterface, Runnab
 
     private static final ObjectMapper ION_OBJECT_MAPPER = JacksonMapper.ofIon();
 
+    private static final Pattern LOOKUP_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
     private String expression;
 
     @Builder.Default
     private Integer maxDepth = 1000;
 
+    private Map<String, Lookup> lookups;
+
+    /**
+     * The lookup tables bound to each parsed expression, by variable name.
+     */
+    @Getter(AccessLevel.PRIVATE)
+    private Map<String, JsonNode> variables;
+
+    @Getter(AccessLevel.PRIVATE)
+    private String renderedExpression;
+
     @Getter(AccessLevel.PRIVATE)
     private Expressions expressions;
 
+    /**
+     * Parsed expressions that are not currently used for an evaluation.
+     * JSONata4Java keeps the evaluation state on the {@link Expressions} instance, so each concurrent evaluation needs its own.
+     */
+    @Getter(AccessLevel.PRIVATE)
+    private Queue<Expressions> idleExpressions;
+
     public void init(RunContext runContext) throws Exception {
-        this.expressions = parseExpression(runContext);
+        this.variables = loadLookups(runContext);
+        this.renderedExpression = runContext.render(this.expression);
+        this.expressions = parseExpression(this.renderedExpression);
+        this.idleExpressions = new ConcurrentLinkedQueue<>();
     }
 
     protected JsonNode evaluateExpression(JsonNode jsonNode) {
+        return evaluateExpression(this.expressions, jsonNode);
+    }
+
+    protected JsonNode evaluateExpression(Expressions expressions, JsonNode jsonNode) {
         try {
             long timeoutInMilli = Optional.ofNullable(getTimeout()).map(Duration::toMillis).orElse(Long.MAX_VALUE);
-            return this.expressions.evaluate(jsonNode, timeoutInMilli, getMaxDepth());
+            return expressions.evaluate(jsonNode, timeoutInMilli, getMaxDepth());
         } catch (EvaluateException e) {
             throw new RuntimeException("Failed to evaluate expression", e);
         }
     }
 
-    private Expressions parseExpression(RunContext runContext) throws IllegalVariableEvaluationException {
+    /**
+     * Gets parsed expressions for the exclusive use of the caller, reusing previously released ones when available.
+     *
+     * @return the {@link Expressions}.
+     * @see #releaseExpressions(Expressions)
+     */
+    protected Expressions acquireExpressions() {
+        Expressions acquired = this.idleExpressions.poll();
+        return acquired != null ? acquired : parseExpression(this.renderedExpression);
+    }
+
+    /**
+     * Releases expressions previously obtained through {@link #acquireExpressions()}.
+     *
+     * @param expressions the {@link Expressions}.
+     */
+    protected void releaseExpressions(Expressions expressions) {
+        this.idleExpressions.offer(expressions);
+    }
+
+    /**
+     * Parses the given expression, and binds the lookup tables and the {@link JavaFunctions} to it.
+     *
+     * @param expression the JSONata expression.
+     * @return the {@link Expressions}.
+     */
+    protected Expressions parseExpression(String expression) {
+        final Expressions parsed;
         try {
-            return Expressions.parse(runContext.render(this.expression));
+            parsed = Expressions.parse(expression);
         } catch (ParseException | IOException e) {
             throw new IllegalArgumentException("Invalid JSONata expression. Error: " + e.getMessage(), e);
         }
+        if (this.variables != null) {
+            this.variables.forEach((name, value) -> parsed.getEnvironment().setVariable(name, value));
+        }
+        JavaFunctions.register(parsed);
+        return parsed;
+    }
+
+    private Map<String, JsonNode> loadLookups(RunContext runContext) throws Exception {
+        if (this.lookups == null || this.lookups.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, JsonNode> loaded = new HashMap<>();
+        for (Map.Entry<String, Lookup> lookup : this.lookups.entrySet()) {
+            if (!LOOKUP_NAME.matcher(lookup.getKey()).matches()) {
+                throw new IllegalArgumentException("Invalid lookup name '" + lookup.getKey() + "': must be a valid JSONata variable name");
+            }
+            final URI from = URI.create(runContext.render(lookup.getValue().getFrom()));
+            try (InputStream is = CompressedInputStreams.decompressIfNeeded(runContext.storage().getFile(from))) {
+                final ObjectNode table = LookupTables.read(is, from, runContext.render(lookup.getValue().getKey()));
+                runContext.logger().debug("Loaded {} entries into lookup '{}'", table.size(), lookup.getKey());
+                // variable names include the `$` prefix.
+                loaded.put("$" + lookup.getKey(), table);
+            }
+        }
+        return loaded;
     }
 }
@@ -1,10 +1,20 @@
 package io.kestra.plugin.transform.jsonata;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+import com.api.jsonata4java.expressions.Expressions;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,12 +22,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.tasks.Output;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.TransformFilesInterface;
+import io.kestra.plugin.transform.internal.DistinctItems;
+import io.kestra.plugin.transform.internal.ItemErrors;
+import io.kestra.plugin.transform.internal.ItemFilesTransformer;
+import io.kestra.plugin.transform.jsonata.internal.ItemFilter;
+import io.kestra.plugin.transform.jsonata.internal.ItemProfiler;
+import io.kestra.plugin.transform.jsonata.internal.ItemSorter;
+import io.kestra.plugin.transform.jsonata.internal.JsonPointerReader;
+import io.kestra.plugin.transform.jsonata.internal.LatencyHistogram;
+import io.kestra.plugin.transform.jsonata.internal.NdJsonSerde;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -26,6 +49,9 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
 
 @SuperBuilder
 @ToString
@@ -73,20 +99,256 @@ import reactor.core.publisher.Flux;
                         "total_discounted_price": $sum(products.(price-(price*discountPercentage/100)))
                       }
                 """
+        ),
+        @Example(
+            title = "Transform the files produced by two upstream tasks concurrently, into one file per input.",
+            full = false,
+            code = """
+                id: jsonata-multi-files
+                namespace: company.team
+                tasks:
+                  - id: transform
+                    type: io.kestra.plugin.transform.jsonata.TransformItems
+                    from:
+                      - "{{ outputs.extract_eu.uri }}"
+                      - "{{ outputs.extract_us.uri }}"
+                    expression: "{ 'id': id, 'total': price * quantity }"
+                    mergeOutputs: false
+                """
+        ),
+        @Example(
+            title = "Stream the products of a large JSON document downloaded over HTTP, without loading the whole document in memory.",
+            full = true,
+            code = """
+                id: jsonata-json-pointer
+                namespace: company.team
+                tasks:
+                  - id: http_download
+                    type: io.kestra.plugin.core.http.Download
+                    uri: https://dummyjson.com/products
+                  - id: get_product_and_brand_name
+                    type: io.kestra.plugin.transform.jsonata.TransformItems
+                    from: "{{ outputs.http_download.uri }}"
+                    jsonPointer: /products
+                    expression: title & ' by ' & brand
+                """
+        ),
+        @Example(
+            title = "Keep only the paid orders, and project them in the same pass.",
+            full = false,
+            code = """
+                id: jsonata-filter
+                namespace: company.team
+                tasks:
+                  - id: transform
+                    type: io.kestra.plugin.transform.jsonata.TransformItems
+                    from: "{{ outputs.extract.uri }}"
+                    filter: "status = 'PAID' and total > 0"
+                    expression: "{ 'id': id, 'total': total }"
+                """
+        ),
+        @Example(
+            title = "Get the 100 slowest requests of an access log parsed with grok.",
+            full = false,
+            code = """
+                id: jsonata-top-n
+                namespace: company.team
+                tasks:
+                  - id: transform
+                    type: io.kestra.plugin.transform.jsonata.TransformItems
+                    from: "{{ outputs.parse_access_log.uri }}"
+                    expression: "{ 'path': request, 'duration': $number(duration) }"
+                    sortBy: duration
+                    sortOrder: DESC
+                    topN: 100
+                """
+        ),
+        @Example(
+            title = "Enrich order lines with the name of their product, looked up in a product catalog.",
+            full = false,
+            code = """
+                id: jsonata-lookups
+                namespace: company.team
+                tasks:
+                  - id: transform
+                    type: io.kestra.plugin.transform.jsonata.TransformItems
+                    from: "{{ outputs.extract_orders.uri }}"
+                    lookups:
+                      catalog:
+                        from: "{{ outputs.extract_catalog.uri }}"
+                        key: product_id
+                    expression: "{ 'order_id': order_id, 'product': $lookup($catalog, product_id).name }"
+                """
         )
     }
 )
-public class TransformItems extends Transform implements RunnableTask<Output> {
+public class TransformItems extends Transform implements TransformFilesInterface, RunnableTask<Output> {
 
     private static final ObjectMapper ION_OBJECT_MAPPER = JacksonMapper.ofIon();
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Object from;
+
+    @Schema(
+        title = "A JSON pointer to the array whose elements are the items to transform, e.g. `/products`.",
+        description = """
+            By default, each input file must contain one item per line, as written by other tasks. \
+            When set, each input file is instead read as a single JSON or ION document, and the elements of the array found at the pointer \
+            are streamed one by one, skipping the rest of the document, so that the memory used is bounded by the largest element. \
+            Use an empty pointer to stream the elements of a root array.
+            Files with a `.json` extension, or all files when `inputFormat` is `NDJSON`, are read as JSON, other files as ION.
+            """
+    )
+    @PluginProperty(dynamic = true)
+    private String jsonPointer;
+
+    @Schema(
+        title = "The format of the input files.",
+        description = """
+            - `ION`: one ION value per item, as written by other tasks.
+            - `NDJSON`: one JSON value per item, e.g. a JSON Lines export.
+            """
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private Format inputFormat = Format.ION;
+
+    @Schema(
+        title = "The format of the output files.",
+        description = """
+            - `ION`: one ION value per item, as expected by other tasks.
+            - `NDJSON`: one JSON value per line, written to a `.jsonl` file.
+            """
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private Format outputFormat = Format.ION;
+
+    @Schema(
+        title = "A JSONata predicate deciding which items are transformed.",
+        description = "The predicate is evaluated against each item before the `expression`. " +
+            "Items for which it is `false` or undefined are dropped without being transformed nor written, " +
+            "following the casting rules of the JSONata `$boolean()` function."
+    )
+    @PluginProperty(dynamic = true)
+    private String filter;
+
+    @Schema(
+        title = "A JSONata expression computing the key identifying each item, to drop the items whose key was already seen.",
+        description = "The expression is evaluated against each item kept by the `filter`, before the `expression`. " +
+            "Duplicates are dropped while the items are read, across all input files, without being transformed nor written. " +
+            "The files are then transformed one at a time, in the order in which they were given, whatever `maxConcurrency`, " +
+            "so that the first occurrence of an item is always the one kept. " +
+            "Items for which the key is undefined are never considered as duplicates. Can't be combined with `checkpointInterval`."
+    )
+    @PluginProperty(dynamic = true)
+    private String distinctBy;
+
+    @Builder.Default
+    private DistinctMode distinctMode = DistinctMode.EXACT;
+
+    @Builder.Default
+    private Integer distinctWindow = 100_000;
+
+    @Builder.Default
+    private Long expectedDistinctItems = 1_000_000L;
+
+    @Builder.Default
+    private Double falsePositiveRate = 0.001;
 
     @Schema(
-        title = "The file to be transformed.",
-        description = "Must be a `kestra://` internal storage URI."
+        title = "A JSONata expression computing the sort key of each transformed item.",
+        description = """
+            When set, the items of each output file are sorted by key: numbers by value, strings lexicographically, \
+            and items for which the key is undefined last. Items with equal keys keep their order.
+            The transformed items are streamed into the sort as they are produced, and only the sorted items are written. \
+            Without `topN`, all items are sorted with an external merge sort: they are buffered up to `maxSortMemorySize`, \
+            then spilled to disk as sorted runs that are merged at the end.
+            When the outputs are merged, the files are transformed one at a time, in the order in which they were given, \
+            whatever `maxConcurrency`, as their items are sorted together. Can't be combined with `checkpointInterval`.
+            """
     )
     @PluginProperty(dynamic = true)
+    private String sortBy;
+
+    @Schema(
+        title = "The order in which items are sorted by `sortBy`."
+    )
+    @PluginProperty
     @NotNull
-    private String from;
+    @Builder.Default
+    private SortOrder sortOrder = SortOrder.ASC;
+
+    @Schema(
+        title = "The maximum number of items to keep in each output file, in `sortBy` order.",
+        description = "The first items are selected while the items are transformed, using a heap bounded by `topN`, " +
+            "so that no sorted run is spilled to disk and the other items are never written. " +
+            "The item counts only account for the items kept. Requires `sortBy` to be set."
+    )
+    @PluginProperty
+    @Min(1)
+    private Integer topN;
+
+    @Schema(
+        title = "The maximum estimated size, in bytes, of the items held in memory when sorting by `sortBy`.",
+        description = "Above this size, the buffered items are sorted and spilled to disk, then merged at the end."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Long maxSortMemorySize = 64L * 1024 * 1024;
+
+    @Schema(
+        title = "The interval between two items sampled to measure the cost of their transformation, e.g. `100` to sample one item out of 100.",
+        description = """
+            When set, the latency of the sampled items is reported as timer metrics, with their 50th, 90th and 99th percentiles and maximum: \
+            `evaluation.*` for the evaluation of the filter, key and expression, `decode.*` for reading the item, and `encode.*` for writing the transformed item.
+            The slowest sampled items to evaluate are written to the `slowestItemsUri` file. Use `1` to sample all items.
+            The number of input items and of input and output bytes are always reported as metrics.
+            """
+    )
+    @PluginProperty
+    @Min(1)
+    private Integer latencySamplingInterval;
+
+    @Schema(
+        title = "The number of slowest sampled items written to the `slowestItemsUri` file, along with their input file, offset and evaluation duration.",
+        description = "Only applies when `latencySamplingInterval` is set."
+    )
+    @PluginProperty
+    @Min(0)
+    @Builder.Default
+    private Integer slowestItems = 10;
+
+    @Builder.Default
+    private Integer maxConcurrency = 4;
+
+    @Builder.Default
+    private boolean mergeOutputs = true;
+
+    @Builder.Default
+    private OnError onError = OnError.FAIL;
+
+    private Double maxErrorRatio;
+
+    @Schema(
+        title = "The number of input items between two checkpoints.",
+        description = """
+            When set, the transformed items are flushed to the internal storage every `checkpointInterval` items, \
+            and the progress is recorded in the KV store of the flow namespace.
+            If the task run is restarted, e.g. after a worker failure, the transformation resumes from the last checkpoint instead of starting over.
+            Only the transformed items are checkpointed, so that `checkpointInterval` can't be combined with `distinctBy` \
+            or `sortBy`, nor with `onError: ROUTE`. The item counts of a resumed task run, and the `maxErrorRatio` check, \
+            only account for the items transformed since the last checkpoint.
+            """
+    )
+    @PluginProperty
+    @Min(1)
+    private Integer checkpointInterval;
 
     /**
      * {@inheritDoc}
@@ -96,30 +358,308 @@ public class TransformItems extends Transform implements RunnableTask<Output> {
 
         init(runContext);
 
-        final URI from = new URI(runContext.render(this.from));
+        checkCheckpointInterval();
+        final String renderedPointer = this.jsonPointer != null ? runContext.render(this.jsonPointer) : null;
+        final String renderedFilter = this.filter != null ? runContext.render(this.filter) : null;
+        final ItemFilter itemFilter = renderedFilter != null ? new ItemFilter() : null;
+        final String renderedDistinctBy = this.distinctBy != null ? runContext.render(this.distinctBy) : null;
+        final String renderedSortBy = this.sortBy != null ? runContext.render(this.sortBy) : null;
+        if (topN != null && renderedSortBy == null) {
+            throw new IllegalArgumentException("`topN` requires `sortBy` to be set");
+        }
+        final ItemProfiler profiler = new ItemProfiler(latencySamplingInterval, slowestItems);
+
+        // the items of a merged output are sorted together, by a sorter shared by all input files.
+        try (ItemSorter mergedSorter = renderedSortBy != null && mergeOutputs ? itemSorter(runContext) : null) {
+            final ItemsTransformation transformation = new ItemsTransformation(
+                runContext,
+                renderedPointer,
+                renderedFilter,
+                itemFilter,
+                renderedDistinctBy,
+                renderedSortBy,
+                mergedSorter,
+                profiler
+            );
+
+            final ItemFilesTransformer.Result result;
+            try {
+                result = new ItemFilesTransformer(this, outputFormat.extension(), this::writeAll)
+                    .run(runContext, renderedDistinctBy != null, transformation);
+            } finally {
+                if (itemFilter != null) {
+                    runContext.metric(Counter.of("kept.items", itemFilter.keptItemsTotal()));
+                    runContext.metric(Counter.of("dropped.items", itemFilter.droppedItemsTotal()));
+                }
+                runContext.metric(Counter.of("input.items", profiler.inputItemsTotal()));
+                runContext.metric(Counter.of("input.bytes", profiler.inputBytesTotal()));
+                if (profiler.isSampling()) {
+                    timers(runContext, "evaluation", profiler.evaluation());
+                    timers(runContext, "decode", profiler.decode());
+                    timers(runContext, "encode", profiler.encode());
+                }
+            }
+            runContext.metric(Counter.of("output.bytes", result.outputBytesTotal()));
+
+            Long spilledRunsTotal = null;
+            Long spilledBytesTotal = null;
+            if (renderedSortBy != null) {
+                spilledRunsTotal = transformation.spilledRunsTotal();
+                spilledBytesTotal = transformation.spilledBytesTotal();
+                runContext.metric(Counter.of("spilled.runs", spilledRunsTotal));
+                runContext.metric(Counter.of("spilled.bytes", spilledBytesTotal));
+            }
+
+            URI slowestItemsUri = null;
+            if (profiler.isSampling()) {
+                slowestItemsUri = writeSlowestItems(runContext, profiler);
+            }
+
+            // output
+            return Output
+                .builder()
+                .uri(result.uri())
+                .processedItemsTotal(result.processedItemsTotal())
+                .failedItemsTotal(result.failedItemsTotal())
+                .errorsUri(result.errorsUri())
+                .keptItemsTotal(itemFilter != null ? itemFilter.keptItemsTotal() : null)
+                .droppedItemsTotal(itemFilter != null ? itemFilter.droppedItemsTotal() : null)
+                .duplicateItemsTotal(result.duplicateItemsTotal())
+                .spilledRunsTotal(spilledRunsTotal)
+                .spilledBytesTotal(spilledBytesTotal)
+                .slowestItemsUri(slowestItemsUri)
+                .files(result.files().stream()
+                    .map(file -> FileOutput
+                        .builder()
+                        .from(file.from())
+                        .uri(file.uri())
+                        .processedItemsTotal(file.processedItemsTotal())
+                        .build()
+                    )
+                    .toList()
+                )
+                .build();
+        }
+    }
+
+    private void checkCheckpointInterval() {
+        // the sorted items are buffered across the whole input, so they can't be resumed.
+        if (checkpointInterval != null && sortBy != null) {
+            throw new IllegalArgumentException("`checkpointInterval` can't be combined with `sortBy`, as the sorted items are not checkpointed");
+        }
+    }
 
-        try (InputStream is = runContext.storage().getFile(from)) {
-            Flux<JsonNode> flux = FileSerde.readAll(is, new TypeReference<JsonNode>() {
+    private Flux<JsonNode> transform(final Flux<JsonNode> items,
+                                     final Function<JsonNode, JsonNode> transform,
+                                     final ItemErrors errors) {
+        if (errors != null) {
+            return errors.apply(items, transform);
+        }
+        if (filter != null || distinctBy != null) {
+            return items.handle((item, sink) -> {
+                final JsonNode result = transform.apply(item);
+                if (result != null) {
+                    sink.next(result);
+                }
             });
-            final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
+        }
+        return items.map(transform);
+    }
+
+    private static boolean isDuplicate(final DistinctItems distinct, final JsonNode key) {
+        // items with an undefined key are always kept.
+        return key != null && !key.isMissingNode() && !distinct.add(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ItemSorter itemSorter(final RunContext runContext) {
+        return new ItemSorter(runContext.workingDir().path(), sortOrder == SortOrder.DESC, topN, maxSortMemorySize);
+    }
+
+    private static URI writeSlowestItems(final RunContext runContext, final ItemProfiler profiler) throws IOException {
+        final Path slowestItemsFilePath = runContext.workingDir().createTempFile(".ion");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(slowestItemsFilePath), BUFFER_SIZE)) {
+                profiler.writeSlowestItems(os);
+            }
+            return runContext.storage().putFile(slowestItemsFilePath.toFile());
+        } finally {
+            Files.deleteIfExists(slowestItemsFilePath);
+        }
+    }
+
+    private static void timers(final RunContext runContext, final String name, final LatencyHistogram histogram) {
+        if (histogram.count() == 0) {
+            return;
+        }
+        runContext.metric(Timer.of(name + ".p50", Duration.ofNanos(histogram.percentile(0.50))));
+        runContext.metric(Timer.of(name + ".p90", Duration.ofNanos(histogram.percentile(0.90))));
+        runContext.metric(Timer.of(name + ".p99", Duration.ofNanos(histogram.percentile(0.99))));
+        runContext.metric(Timer.of(name + ".max", Duration.ofNanos(histogram.max())));
+    }
+
+    private Flux<JsonNode> readAll(final InputStream is, final URI from, final String pointer) {
+        if (pointer != null) {
+            return JsonPointerReader.readAll(is, documentMapper(from), pointer);
+        }
+        if (inputFormat == Format.NDJSON) {
+            return NdJsonSerde.readAll(is);
+        }
+        return FileSerde.readAll(is, new TypeReference<JsonNode>() {
+        });
+    }
+
+    private Mono<Long> writeAll(final OutputStream os, final Flux<?> values) throws IOException {
+        if (outputFormat == Format.NDJSON) {
+            return NdJsonSerde.writeAll(os, values);
+        }
+        return FileSerde.writeAll(os, values);
+    }
+
+    private ObjectMapper documentMapper(final URI from) {
+        final String path = String.valueOf(from.getPath()).toLowerCase(Locale.ROOT);
+        final boolean json = inputFormat == Format.NDJSON || path.endsWith(".json") || path.endsWith(".json.gz");
+        return json ? JSON_OBJECT_MAPPER : ION_OBJECT_MAPPER;
+    }
+
+    /**
+     * Transforms the items of each input file with the expression, after the filter and the deduplication,
+     * then sorts them if needed.
+     */
+    private final class ItemsTransformation implements ItemFilesTransformer.Transformation {
+
+        private final RunContext runContext;
+
+        private final String pointer;
+
+        private final String renderedFilter;
+
+        private final ItemFilter itemFilter;
+
+        private final String renderedDistinctBy;
+
+        private final String renderedSortBy;
+
+        private final ItemSorter mergedSorter;
+
+        private final ItemProfiler profiler;
+
+        private final AtomicLong spilledRunsTotal = new AtomicLong();
+
+        private final AtomicLong spilledBytesTotal = new AtomicLong();
+
+        ItemsTransformation(final RunContext runContext,
+                            final String pointer,
+                            final String renderedFilter,
+                            final ItemFilter itemFilter,
+                            final String renderedDistinctBy,
+                            final String renderedSortBy,
+                            final ItemSorter mergedSorter,
+                            final ItemProfiler profiler) {
+            this.runContext = runContext;
+            this.pointer = pointer;
+            this.renderedFilter = renderedFilter;
+            this.itemFilter = itemFilter;
+            this.renderedDistinctBy = renderedDistinctBy;
+            this.renderedSortBy = renderedSortBy;
+            this.mergedSorter = mergedSorter;
+            this.profiler = profiler;
+        }
+
+        @Override
+        public ItemFilesTransformer.FileTransformation<JsonNode> open(final URI from,
+                                                                      final int index,
+                                                                      final InputStream is,
+                                                                      final ItemErrors errors,
+                                                                      final DistinctItems distinct) throws Exception {
+            final Expressions expressions = acquireExpressions();
             try {
+                final Expressions filterExpressions = renderedFilter != null ? parseExpression(renderedFilter) : null;
+                final Expressions distinctExpressions = renderedDistinctBy != null ? parseExpression(renderedDistinctBy) : null;
+                final Expressions sortExpressions = renderedSortBy != null ? parseExpression(renderedSortBy) : null;
+                final ItemProfiler.File profile = profiler.file(from);
+                final Function<JsonNode, JsonNode> transform = profile.profile(jsonNode -> {
+                    // dropped items and duplicates are neither transformed nor written.
+                    if (filterExpressions != null && !itemFilter.test(evaluateExpression(filterExpressions, jsonNode))) {
+                        return null;
+                    }
+                    if (distinctExpressions != null && isDuplicate(distinct, evaluateExpression(distinctExpressions, jsonNode))) {
+                        return null;
+                    }
+                    return evaluateExpression(expressions, jsonNode);
+                });
+                final Flux<JsonNode> items = profile.profile(readAll(profile.count(is), from, pointer));
+                final ItemSorter sorter = sortExpressions != null && mergedSorter == null ? itemSorter(runContext) : null;
+
+                return new ItemFilesTransformer.FileTransformation<>() {
+                    @Override
+                    public Flux<JsonNode> items() {
+                        return items;
+                    }
 
-                // transform
-                Flux<JsonNode> values = flux.map(this::evaluateExpression);
+                    @Override
+                    public Flux<JsonNode> transform(final Flux<JsonNode> window) {
+                        final Flux<JsonNode> transformed = TransformItems.this.transform(window, transform, errors);
+                        if (sortExpressions == null) {
+                            return transformed;
+                        }
+                        // the transformed items are streamed into the sorter, and only the sorted items are written.
+                        final ItemSorter target = sorter != null ? sorter : mergedSorter;
+                        final Flux<JsonNode> sorting = transformed
+                            .doOnNext(throwConsumer(item -> target.add(evaluateExpression(sortExpressions, item), item, index)));
+                        if (sorter == null) {
+                            // the items fed to the merged sorter are written once all files were transformed.
+                            return sorting.thenMany(Flux.empty());
+                        }
+                        return sorting.thenMany(Flux.defer(() -> {
+                            try {
+                                return sorter.sorted();
+                            } catch (IOException e) {
+                                return Flux.error(e);
+                            }
+                        }));
+                    }
 
-                Long processedItemsTotal = FileSerde.writeAll(Files.newOutputStream(ouputFilePath), values).block();
+                    @Override
+                    public void close() throws IOException {
+                        releaseExpressions(expressions);
+                        if (sorter != null) {
+                            spilledRunsTotal.addAndGet(sorter.spilledRunsTotal());
+                            spilledBytesTotal.addAndGet(sorter.spilledBytesTotal());
+                            sorter.close();
+                        }
+                    }
+                };
+            } catch (Exception e) {
+                releaseExpressions(expressions);
+                throw e;
+            }
+        }
 
-                URI uri = runContext.storage().putFile(ouputFilePath.toFile());
+        @Override
+        public boolean isSequential() {
+            // the files sharing the sorter are transformed in order, for equal keys to keep their order.
+            return mergedSorter != null;
+        }
 
-                // output
-                return Output
-                    .builder()
-                    .uri(uri)
-                    .processedItemsTotal(processedItemsTotal)
-                    .build();
-            } finally {
-                Files.deleteIfExists(ouputFilePath); // ensure temp file is deleted in case of error
+        @Override
+        public long complete(final OutputStream os) throws IOException {
+            if (mergedSorter == null) {
+                return 0;
             }
+            return writeAll(os, mergedSorter.sorted()).block();
+        }
+
+        @Override
+        public long processedItemsTotal(final int index, final long written) {
+            return mergedSorter != null ? mergedSorter.keptItemsTotal(index) : written;
+        }
+
+        long spilledRunsTotal() {
+            return spilledRunsTotal.get() + (mergedSorter != null ? mergedSorter.spilledRunsTotal() : 0);
+        }
+
+        long spilledBytesTotal() {
+            return spilledBytesTotal.get() + (mergedSorter != null ? mergedSorter.spilledBytesTotal() : 0);
         }
     }
 
@@ -127,7 +667,8 @@ public class TransformItems extends Transform implements RunnableTask<Output> {
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
-            title = "File URI containing the result of transformation."
+            title = "File URI containing the result of transformation.",
+            description = "Only set when a single file is transformed, or when `mergeOutputs` is `true`."
         )
         private final URI uri;
 
@@ -135,5 +676,99 @@ public class TransformItems extends Transform implements RunnableTask<Output> {
             title = "The total number of items that was processed by the task."
         )
         private final Long processedItemsTotal;
+
+        @Schema(
+            title = "The total number of items that failed to be transformed.",
+            description = "Only set when `onError` is `SKIP` or `ROUTE`."
+        )
+        private final Long failedItemsTotal;
+
+        @Schema(
+            title = "The URI of the file containing the items that failed to be transformed, along with their error message.",
+            description = "Only set when `onError` is `ROUTE`."
+        )
+        private final URI errorsUri;
+
+        @Schema(
+            title = "The total number of items for which the `filter` predicate is true.",
+            description = "Only set when `filter` is set."
+        )
+        private final Long keptItemsTotal;
+
+        @Schema(
+            title = "The total number of items dropped as the `filter` predicate is false or undefined.",
+            description = "Only set when `filter` is set."
+        )
+        private final Long droppedItemsTotal;
+
+        @Schema(
+            title = "The total number of items dropped as duplicates.",
+            description = "Only set when `distinctBy` is set."
+        )
+        private final Long duplicateItemsTotal;
+
+        @Schema(
+            title = "The number of sorted runs spilled to disk when sorting by `sortBy`.",
+            description = "Only set when `sortBy` is set."
+        )
+        private final Long spilledRunsTotal;
+
+        @Schema(
+            title = "The total size, in bytes, of the sorted runs spilled to disk when sorting by `sortBy`.",
+            description = "Only set when `sortBy` is set."
+        )
+        private final Long spilledBytesTotal;
+
+        @Schema(
+            title = "The URI of the file containing the slowest sampled items to evaluate, slowest first.",
+            description = "Each line holds the input file (`from`), the `offset` of the item in the file, its evaluation duration (`durationNanos`) and the `item` itself. " +
+                "Only set when `latencySamplingInterval` is set."
+        )
+        private final URI slowestItemsUri;
+
+        @Schema(
+            title = "The transformation result for each input file."
+        )
+        private final List<FileOutput> files;
+    }
+
+    public enum SortOrder {
+        ASC,
+        DESC
+    }
+
+    public enum Format {
+        ION(".ion"),
+        NDJSON(".jsonl");
+
+        private final String extension;
+
+        Format(final String extension) {
+            this.extension = extension;
+        }
+
+        String extension() {
+            return extension;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class FileOutput {
+        @Schema(
+            title = "The input file URI."
+        )
+        private final URI from;
+
+        @Schema(
+            title = "File URI containing the result of transformation.",
+            description = "Only set when `mergeOutputs` is `false`."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "The number of items that was processed for this file."
+        )
+        private final Long processedItemsTotal;
     }
-}
+}
\ No newline at end of file
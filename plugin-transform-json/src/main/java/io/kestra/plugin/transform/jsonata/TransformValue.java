@@ -10,7 +10,9 @@ import io.kestra.core.models.tasks.Output;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.transform.internal.LargeValues;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -19,6 +21,8 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
+import java.net.URI;
+
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
@@ -92,6 +96,15 @@ public class TransformValue extends Transform implements RunnableTask<Output> {
     @NotNull
     private String from;
 
+    @Schema(
+        title = "The maximum size, in bytes, of a value returned inline in the task outputs.",
+        description = "A larger value is written to the internal storage, as a single ION value, and its URI is returned as `uri` instead of `value`, " +
+            "so that it does not bloat the execution context. By default, the value is always returned inline."
+    )
+    @PluginProperty
+    @Min(0)
+    private Integer maxInlineSize;
+
 
     /**
      * {@inheritDoc}
@@ -106,7 +119,8 @@ public class TransformValue extends Transform implements RunnableTask<Output> {
         JsonNode transformed = evaluateExpression(from);
 
         // output
-        return Output.builder().value(transformed).build();
+        final URI uri = LargeValues.storeIfLarger(runContext, transformed, maxInlineSize);
+        return Output.builder().value(uri == null ? transformed : null).uri(uri).build();
     }
 
     private static JsonNode parseJson(String from) {
@@ -121,8 +135,15 @@ public class TransformValue extends Transform implements RunnableTask<Output> {
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
-            title = "The transformed value."
+            title = "The transformed value.",
+            description = "Not set when the value is larger than `maxInlineSize`."
         )
         private final Object value;
+
+        @Schema(
+            title = "The URI of the file containing the transformed value.",
+            description = "Only set when the value is larger than `maxInlineSize`."
+        )
+        private final URI uri;
     }
 }
@@ -0,0 +1,220 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.kestra.core.serializers.FileSerde;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Aggregates items by key, keeping a single partial state per key, within a bounded amount of memory.
+ * <p>
+ * The partial states are held in a hash table. When their estimated size exceeds the memory budget, the table is
+ * sorted by key, following {@link JsonNodes#compare(JsonNode, JsonNode)}, and spilled to a run file in the working directory, then cleared. At the end, the runs are merged
+ * in key order, and the partial states of a key found in several runs are combined, so that only one state per run
+ * is held in memory during the merge.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class GroupAggregator implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // keys are ordered by value, then by JSON representation, which identifies a group: keys comparing equal by value,
+    // e.g. 1 and 1.0, are distinct groups that must not be interleaved when merging runs.
+    private static final Comparator<JsonNode> KEY_ORDER = ((Comparator<JsonNode>) JsonNodes::compare).thenComparing(JsonNode::toString);
+
+    /**
+     * A function folding a value into the partial state of a key.
+     */
+    @FunctionalInterface
+    public interface Reducer {
+        /**
+         * Reduces the given value into the given state.
+         *
+         * @param key   the group key.
+         * @param state the current partial state, or {@code null} for the first value of the key.
+         * @param value the value to fold into the state.
+         * @return the new partial state.
+         */
+        JsonNode reduce(JsonNode key, JsonNode state, JsonNode value);
+    }
+
+    private final Path directory;
+
+    private final long maxMemorySize;
+
+    private final Reducer reducer;
+
+    private final Reducer combiner;
+
+    private final Map<String, Group> groups = new HashMap<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private long memorySize;
+
+    /**
+     * Creates a new {@link GroupAggregator} instance.
+     *
+     * @param directory     the directory to spill runs to.
+     * @param maxMemorySize the maximum estimated size, in bytes, of the partial states held in memory.
+     * @param reducer       the function folding an item into the partial state of its key.
+     * @param combiner      the function folding a spilled partial state into another one of the same key,
+     *                      or {@code null} if the partial states must not be spilled.
+     */
+    public GroupAggregator(final Path directory, final long maxMemorySize, final Reducer reducer, final Reducer combiner) {
+        this.directory = directory;
+        this.maxMemorySize = maxMemorySize;
+        this.reducer = reducer;
+        this.combiner = combiner;
+    }
+
+    /**
+     * Folds the given item into the partial state of the given key.
+     *
+     * @param key  the group key, or {@code null} if undefined.
+     * @param item the item.
+     */
+    public void add(final JsonNode key, final JsonNode item) throws IOException {
+        final JsonNode groupKey = key != null ? key : NullNode.getInstance();
+        final Group group = groups.computeIfAbsent(groupKey.toString(), id -> new Group(id, groupKey));
+
+        final JsonNode state = reducer.reduce(group.key, group.state, item);
+        final long size = group.keySize + JsonNodes.estimateSize(state);
+        // spilling can't bring a single state under the budget, it would only spill a run per item.
+        if (size > maxMemorySize) {
+            throw new IllegalStateException(
+                "The partial state of the group " + groupKey + " is estimated to " + size + " bytes, " +
+                    "which exceeds the memory budget of " + maxMemorySize + " bytes"
+            );
+        }
+        memorySize += size - group.size;
+        group.state = state;
+        group.size = size;
+
+        if (memorySize > maxMemorySize) {
+            if (combiner == null) {
+                throw new IllegalStateException(
+                    "The partial states of " + groups.size() + " groups exceed the memory budget of " + maxMemorySize + " bytes, " +
+                        "and cannot be spilled to disk without a combiner"
+                );
+            }
+            spill();
+        }
+    }
+
+    /**
+     * Writes the final state of each group, in key order.
+     *
+     * @param os the {@link OutputStream}, which is not closed.
+     * @return the number of groups.
+     */
+    public long writeAll(final OutputStream os) throws IOException {
+        if (runs.isEmpty()) {
+            long groupsTotal = 0;
+            for (Group group : sortedGroups()) {
+                FileSerde.write(os, group.state);
+                groupsTotal++;
+            }
+            return groupsTotal;
+        }
+
+        if (!groups.isEmpty()) {
+            spill();
+        }
+        return merge(os);
+    }
+
+    /**
+     * Gets the number of runs spilled to disk.
+     *
+     * @return the number of runs.
+     */
+    public long spilledRunsTotal() {
+        return runs.size();
+    }
+
+    /**
+     * Deletes the spilled runs.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private void spill() throws IOException {
+        final Path run = Files.createTempFile(directory, "group-", ".ion");
+        runs.add(run);
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE)) {
+            for (Group group : sortedGroups()) {
+                SortedRuns.write(os, group.key, group.state);
+            }
+        }
+        groups.clear();
+        memorySize = 0;
+    }
+
+    private List<Group> sortedGroups() {
+        final List<Group> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparing(group -> group.key, KEY_ORDER));
+        return sorted;
+    }
+
+    private long merge(final OutputStream os) throws IOException {
+        final PriorityQueue<SortedRuns.Reader> heads = SortedRuns.open(runs, KEY_ORDER);
+        try {
+            long groupsTotal = 0;
+            while (!heads.isEmpty()) {
+                final SortedRuns.Reader first = heads.poll();
+                final JsonNode key = first.key();
+                final String id = key.toString();
+                JsonNode state = first.value();
+                SortedRuns.advance(heads, first);
+
+                // runs holding the same key are combined in the order they were spilled.
+                while (!heads.isEmpty() && heads.peek().key().toString().equals(id)) {
+                    final SortedRuns.Reader next = heads.poll();
+                    state = combiner.reduce(key, state, next.value());
+                    SortedRuns.advance(heads, next);
+                }
+
+                FileSerde.write(os, state);
+                groupsTotal++;
+            }
+            return groupsTotal;
+        } finally {
+            SortedRuns.closeAll(heads);
+        }
+    }
+
+    private static final class Group {
+
+        private final JsonNode key;
+
+        private final long keySize;
+
+        private JsonNode state;
+
+        private long size;
+
+        Group(final String id, final JsonNode key) {
+            this.key = key;
+            // the key is held twice: as a value, and as the hash table key.
+            this.keySize = JsonNodes.estimateSize(key) + 40 + 2L * id.length();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether items are kept given the result of a predicate expression, and counts the kept and dropped items.
+ * <p>
+ * The result is cast to a boolean following the JSONata {@code $boolean()} rules, so that an undefined result drops the item.
+ */
+public final class ItemFilter {
+
+    private final AtomicLong keptItemsTotal = new AtomicLong();
+
+    private final AtomicLong droppedItemsTotal = new AtomicLong();
+
+    /**
+     * Records the predicate result of an item.
+     *
+     * @param result the result of the predicate expression, or {@code null} if undefined.
+     * @return {@code true} if the item is kept.
+     */
+    public boolean test(final JsonNode result) {
+        final boolean kept = isTruthy(result);
+        (kept ? keptItemsTotal : droppedItemsTotal).incrementAndGet();
+        return kept;
+    }
+
+    /**
+     * Gets the number of items for which the predicate is true.
+     *
+     * @return the number of kept items.
+     */
+    public long keptItemsTotal() {
+        return keptItemsTotal.get();
+    }
+
+    /**
+     * Gets the number of items for which the predicate is false or undefined.
+     *
+     * @return the number of dropped items.
+     */
+    public long droppedItemsTotal() {
+        return droppedItemsTotal.get();
+    }
+
+    static boolean isTruthy(final JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return false;
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNumber()) {
+            return node.doubleValue() != 0;
+        }
+        if (node.isTextual()) {
+            return !node.textValue().isEmpty();
+        }
+        if (node.isArray()) {
+            // an array is true if any of its members is.
+            for (JsonNode element : node) {
+                if (isTruthy(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return !node.isEmpty();
+    }
+}
@@ -0,0 +1,268 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Measures the cost of transforming items, at a cost proportional to the sampling rate.
+ * <p>
+ * The number of items and of bytes read is always counted. When a sampling interval is given, one item out of
+ * {@code interval} is sampled, following their offset in their input file, and the following durations are recorded
+ * for the sampled items:
+ * <ul>
+ *     <li>evaluation: the time spent in the transformation, i.e. evaluating the filter, key and expression;</li>
+ *     <li>decode: the time spent reading the item, since the previous item was written;</li>
+ *     <li>encode: the time spent writing the transformed item, i.e. the rest of the time spent downstream.</li>
+ * </ul>
+ * Reading, transforming and writing an item happen in sequence on the same thread, so that a stage is timed as
+ * the time elapsed between two consecutive signals. Items buffered downstream, e.g. between two checkpoints,
+ * are not sampled. The slowest sampled items to evaluate are kept in memory, in a heap bounded by {@code slowestItems}.
+ * <p>
+ * This class is thread-safe, as long as each input file is profiled by its own {@link File} instance.
+ */
+public final class ItemProfiler {
+
+    private final Integer samplingInterval;
+
+    private final int slowestItems;
+
+    private final LatencyHistogram evaluation = new LatencyHistogram();
+
+    private final LatencyHistogram decode = new LatencyHistogram();
+
+    private final LatencyHistogram encode = new LatencyHistogram();
+
+    // the heap head is the fastest item kept, i.e. the first one to be evicted.
+    private final PriorityQueue<SlowItem> slowest = new PriorityQueue<>(Comparator.comparingLong(SlowItem::durationNanos));
+
+    private final AtomicLong inputItemsTotal = new AtomicLong();
+
+    private final AtomicLong inputBytesTotal = new AtomicLong();
+
+    /**
+     * Creates a new {@link ItemProfiler} instance.
+     *
+     * @param samplingInterval the interval between two sampled items, or {@code null} to only count items and bytes.
+     * @param slowestItems     the number of slowest sampled items to keep.
+     */
+    public ItemProfiler(final Integer samplingInterval, final int slowestItems) {
+        this.samplingInterval = samplingInterval;
+        this.slowestItems = slowestItems;
+    }
+
+    /**
+     * Creates the profile of a new input file.
+     *
+     * @param from the input file URI.
+     * @return a new {@link File}.
+     */
+    public File file(final URI from) {
+        return new File(from);
+    }
+
+    public boolean isSampling() {
+        return samplingInterval != null;
+    }
+
+    public long inputItemsTotal() {
+        return inputItemsTotal.get();
+    }
+
+    public long inputBytesTotal() {
+        return inputBytesTotal.get();
+    }
+
+    public LatencyHistogram evaluation() {
+        return evaluation;
+    }
+
+    public LatencyHistogram decode() {
+        return decode;
+    }
+
+    public LatencyHistogram encode() {
+        return encode;
+    }
+
+    /**
+     * Writes the slowest sampled items, slowest first, along with their input file, offset and evaluation duration.
+     *
+     * @param os the {@link OutputStream} to write to.
+     */
+    public void writeSlowestItems(final OutputStream os) throws IOException {
+        final List<SlowItem> items;
+        synchronized (slowest) {
+            items = new ArrayList<>(slowest);
+        }
+        items.sort(Comparator.comparingLong(SlowItem::durationNanos).reversed());
+        for (SlowItem item : items) {
+            final Map<String, Object> value = new LinkedHashMap<>();
+            value.put("from", item.from().toString());
+            value.put("offset", item.offset());
+            value.put("durationNanos", item.durationNanos());
+            value.put("item", item.item());
+            FileSerde.write(os, value);
+        }
+    }
+
+    private void recordSlowItem(final URI from, final long offset, final long durationNanos, final JsonNode item) {
+        if (slowestItems == 0) {
+            return;
+        }
+        synchronized (slowest) {
+            if (slowest.size() < slowestItems) {
+                slowest.add(new SlowItem(from, offset, durationNanos, item));
+            } else if (durationNanos > slowest.peek().durationNanos()) {
+                slowest.poll();
+                slowest.add(new SlowItem(from, offset, durationNanos, item));
+            }
+        }
+    }
+
+    /**
+     * The profile of an input file. This class is not thread-safe.
+     */
+    public final class File {
+
+        private final URI from;
+
+        private long offset = -1;
+
+        private JsonNode sampled;
+
+        private long evaluationNanos = -1;
+
+        private long returnedAt;
+
+        private File(final URI from) {
+            this.from = from;
+        }
+
+        /**
+         * Counts the bytes read from the given input stream.
+         *
+         * @param is the input file {@link InputStream}.
+         * @return the counting {@link InputStream}.
+         */
+        public InputStream count(final InputStream is) {
+            return new FilterInputStream(is) {
+                private long bytes;
+
+                @Override
+                public int read() throws IOException {
+                    final int read = super.read();
+                    if (read >= 0) {
+                        bytes++;
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    final int read = super.read(b, off, len);
+                    if (read > 0) {
+                        bytes += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(final long n) throws IOException {
+                    final long skipped = super.skip(n);
+                    bytes += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    inputBytesTotal.addAndGet(bytes);
+                    bytes = 0;
+                    super.close();
+                }
+            };
+        }
+
+        /**
+         * Profiles the reading and writing of the items of the file.
+         *
+         * @param items the items read from the file.
+         * @return the profiled items.
+         */
+        public Flux<JsonNode> profile(final Flux<JsonNode> items) {
+            final Flux<JsonNode> profiled = samplingInterval == null
+                ? items.doOnNext(item -> offset++)
+                : items.handle((item, sink) -> {
+                    offset++;
+                    if (offset % samplingInterval != 0) {
+                        sink.next(item);
+                        returnedAt = (offset + 1) % samplingInterval == 0 ? System.nanoTime() : 0;
+                        return;
+                    }
+
+                    final long arrivedAt = System.nanoTime();
+                    if (returnedAt != 0) {
+                        decode.record(arrivedAt - returnedAt);
+                    }
+                    sampled = item;
+                    evaluationNanos = -1;
+                    try {
+                        sink.next(item);
+                    } finally {
+                        sampled = null;
+                    }
+                    returnedAt = System.nanoTime();
+                    if (evaluationNanos >= 0) {
+                        encode.record(returnedAt - arrivedAt - evaluationNanos);
+                    }
+                    if ((offset + 1) % samplingInterval != 0) {
+                        returnedAt = 0;
+                    }
+                });
+            return profiled.doFinally(signal -> inputItemsTotal.addAndGet(offset + 1));
+        }
+
+        /**
+         * Profiles the evaluation of the sampled items.
+         *
+         * @param transform the transformation of an item.
+         * @return the profiled transformation.
+         */
+        public <R> Function<JsonNode, R> profile(final Function<JsonNode, R> transform) {
+            if (samplingInterval == null) {
+                return transform;
+            }
+            return item -> {
+                // only the items evaluated while they are being read are sampled.
+                if (item != sampled) {
+                    return transform.apply(item);
+                }
+                final long start = System.nanoTime();
+                try {
+                    return transform.apply(item);
+                } finally {
+                    evaluationNanos = System.nanoTime() - start;
+                    evaluation.record(evaluationNanos);
+                    recordSlowItem(from, offset, evaluationNanos, item);
+                }
+            };
+        }
+    }
+
+    private record SlowItem(URI from, long offset, long durationNanos, JsonNode item) {
+    }
+}
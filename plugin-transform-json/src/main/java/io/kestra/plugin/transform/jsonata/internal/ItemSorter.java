@@ -0,0 +1,219 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts items by key, within a bounded amount of memory.
+ * <p>
+ * When a limit is given, only the first items in sort order are kept, in a bounded heap whose size is the limit,
+ * so that nothing is ever spilled. Otherwise, items are buffered until their estimated size exceeds the memory budget,
+ * then the buffer is sorted and spilled to a run file in the working directory. At the end, the runs are merged
+ * in key order, so that only one item per run is held in memory during the merge.
+ * <p>
+ * The sort is stable: items with equal keys are returned in the order they were added.
+ * Each item is added with the index of its source, e.g. its input file, to count the items kept per source.
+ * Keys are compared following {@link JsonNodes#compare(JsonNode, JsonNode)}, and undefined keys always come last.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class ItemSorter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+
+    private final Comparator<JsonNode> keyComparator;
+
+    private final Comparator<Entry> entryComparator;
+
+    private final Integer limit;
+
+    private final long maxMemorySize;
+
+    private final List<Entry> buffer = new ArrayList<>();
+
+    private final PriorityQueue<Entry> heap;
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private final Map<Integer, Long> keptItemsTotals = new HashMap<>();
+
+    private long memorySize;
+
+    private long sequence;
+
+    private long spilledBytesTotal;
+
+    /**
+     * Creates a new {@link ItemSorter} instance.
+     *
+     * @param directory     the directory to spill runs to.
+     * @param descending    {@code true} to sort keys in descending order.
+     * @param limit         the maximum number of items to keep, or {@code null} to sort all items.
+     * @param maxMemorySize the maximum estimated size, in bytes, of the items buffered in memory.
+     */
+    public ItemSorter(final Path directory, final boolean descending, final Integer limit, final long maxMemorySize) {
+        this.directory = directory;
+        this.keyComparator = (left, right) -> {
+            final int compare = JsonNodes.compare(left, right);
+            // undefined keys come last whatever the order.
+            return descending && !JsonNodes.isUndefined(left) && !JsonNodes.isUndefined(right) ? -compare : compare;
+        };
+        this.entryComparator = Comparator.<Entry, JsonNode>comparing(Entry::key, keyComparator).thenComparingLong(Entry::sequence);
+        this.limit = limit;
+        this.maxMemorySize = maxMemorySize;
+        // the heap head is the last item kept, i.e. the first one to be evicted.
+        this.heap = limit != null ? new PriorityQueue<>(entryComparator.reversed()) : null;
+    }
+
+    /**
+     * Adds the given item.
+     *
+     * @param key    the sort key, or {@code null} if undefined.
+     * @param item   the item.
+     * @param source the index of the source of the item.
+     */
+    public void add(final JsonNode key, final JsonNode item, final int source) throws IOException {
+        final Entry entry = new Entry(key, item, source, sequence++);
+        if (heap != null) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (limit > 0 && entryComparator.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+            return;
+        }
+
+        keptItemsTotals.merge(source, 1L, Long::sum);
+        buffer.add(entry);
+        memorySize += 8 + JsonNodes.estimateSize(key) + JsonNodes.estimateSize(item);
+        if (memorySize > maxMemorySize) {
+            spill();
+        }
+    }
+
+    /**
+     * Gets the sorted items. The returned flux can only be subscribed to once.
+     *
+     * @return the items, in key order.
+     */
+    public Flux<JsonNode> sorted() throws IOException {
+        if (heap != null) {
+            final List<Entry> kept = new ArrayList<>(heap);
+            heap.clear();
+            kept.sort(entryComparator);
+            for (Entry entry : kept) {
+                keptItemsTotals.merge(entry.source(), 1L, Long::sum);
+            }
+            return Flux.fromIterable(kept).map(Entry::item);
+        }
+
+        if (runs.isEmpty()) {
+            final List<Entry> sorted = new ArrayList<>(buffer);
+            buffer.clear();
+            sorted.sort(entryComparator);
+            return Flux.fromIterable(sorted).map(Entry::item);
+        }
+
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        return Flux.generate(
+            () -> SortedRuns.open(runs, keyComparator),
+            (heads, sink) -> {
+                try {
+                    final SortedRuns.Reader head = heads.poll();
+                    if (head == null) {
+                        sink.complete();
+                    } else {
+                        sink.next(head.value());
+                        SortedRuns.advance(heads, head);
+                    }
+                } catch (IOException e) {
+                    sink.error(new UncheckedIOException(e));
+                }
+                return heads;
+            },
+            heads -> {
+                try {
+                    SortedRuns.closeAll(heads);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+    }
+
+    /**
+     * Gets the number of items of the given source returned by {@link #sorted()}, once called.
+     *
+     * @param source the index of the source.
+     * @return the number of items.
+     */
+    public long keptItemsTotal(final int source) {
+        return keptItemsTotals.getOrDefault(source, 0L);
+    }
+
+    /**
+     * Gets the number of runs spilled to disk.
+     *
+     * @return the number of runs.
+     */
+    public int spilledRunsTotal() {
+        return runs.size();
+    }
+
+    /**
+     * Gets the total size of the runs spilled to disk.
+     *
+     * @return the number of bytes.
+     */
+    public long spilledBytesTotal() {
+        return spilledBytesTotal;
+    }
+
+    /**
+     * Deletes the spilled runs.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private void spill() throws IOException {
+        // the sort is stable, and runs are merged in spill order, so that equal keys keep their insertion order.
+        buffer.sort(entryComparator);
+
+        final Path run = Files.createTempFile(directory, "sort-", ".ion");
+        runs.add(run);
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE)) {
+            for (Entry entry : buffer) {
+                SortedRuns.write(os, entry.key(), entry.item());
+            }
+        }
+        spilledBytesTotal += Files.size(run);
+        buffer.clear();
+        memorySize = 0;
+    }
+
+    private record Entry(JsonNode key, JsonNode item, int source, long sequence) {
+    }
+}
@@ -0,0 +1,293 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.api.jsonata4java.expressions.Expressions;
+import com.api.jsonata4java.expressions.ExpressionsVisitor;
+import com.api.jsonata4java.expressions.functions.FunctionBase;
+import com.api.jsonata4java.expressions.functions.FunctionUtils;
+import com.api.jsonata4java.expressions.generated.MappingExpressionParser.Function_callContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.kestra.plugin.transform.internal.LruCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Functions implemented in Java, bound to the JSONata expressions, for operations that are slow or impossible to write in JSONata.
+ * <ul>
+ *     <li>{@code $sha256(str)}: the hex-encoded SHA-256 digest of the UTF-8 bytes of a string.</li>
+ *     <li>{@code $uuid()}: a random (version 4) UUID, from a cryptographically strong generator.</li>
+ *     <li>{@code $parseTimestamp(str[, pattern[, zone]])}: the milliseconds since the epoch of a timestamp, in ISO-8601 format
+ *     or in the given {@link DateTimeFormatter} pattern, and in the given zone if it has no offset (UTC by default).</li>
+ *     <li>{@code $formatTimestamp(millis[, pattern[, zone]])}: a number of milliseconds since the epoch formatted in ISO-8601
+ *     format or in the given {@link DateTimeFormatter} pattern, in the given zone (UTC by default).</li>
+ * </ul>
+ * The state used by the functions, i.e. message digests, formatters and zones, is created once
+ * and reused across calls: message digests and buffers per thread, and the others in caches keyed by their definition,
+ * holding the {@value #CACHE_SIZE} most recently used entries.
+ * A function returns undefined if one of its required arguments is undefined.
+ */
+public final class JavaFunctions {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final List<JavaFunction> FUNCTIONS = List.of(
+        new Sha256Function(),
+        new UuidFunction(),
+        new ParseTimestampFunction(),
+        new FormatTimestampFunction()
+    );
+
+    // arguments can be computed per item, so that the caches are bounded to not grow with the data.
+    static final int CACHE_SIZE = LruCache.DEFAULT_CAPACITY;
+
+    private static final LruCache<DateTimeFormatter> FORMATTERS = new LruCache<>(CACHE_SIZE, DateTimeFormatter::ofPattern);
+
+    private static final LruCache<ZoneId> ZONES = new LruCache<>(CACHE_SIZE, ZoneId::of);
+
+    private JavaFunctions() {
+    }
+
+    /**
+     * Binds all the functions to the given expressions.
+     *
+     * @param expressions the parsed {@link Expressions}.
+     */
+    public static void register(final Expressions expressions) {
+        for (JavaFunction function : FUNCTIONS) {
+            expressions.getEnvironment().setJsonataFunction(function.getFunctionName(), function);
+        }
+    }
+
+    private abstract static class JavaFunction extends FunctionBase {
+
+        private final String name;
+
+        private final int minArgs;
+
+        private final int maxArgs;
+
+        private final String signature;
+
+        JavaFunction(final String name, final int minArgs, final int maxArgs, final String signature) {
+            this.name = name;
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+            this.signature = signature;
+        }
+
+        @Override
+        public JsonNode invoke(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx) {
+            final int argCount = getArgumentCount(ctx);
+            if (argCount < minArgs || argCount > maxArgs) {
+                throw new IllegalArgumentException(
+                    "The " + name + " function expects between " + minArgs + " and " + maxArgs + " arguments, but got " + argCount
+                );
+            }
+            return apply(expressionVisitor, ctx, argCount);
+        }
+
+        abstract JsonNode apply(ExpressionsVisitor expressionVisitor, Function_callContext ctx, int argCount);
+
+        public String getFunctionName() {
+            return name;
+        }
+
+        @Override
+        public int getMinArgs() {
+            return minArgs;
+        }
+
+        @Override
+        public int getMaxArgs() {
+            return maxArgs;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        static JsonNode argument(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx, final int index, final int argCount) {
+            if (index >= argCount) {
+                return null;
+            }
+            final JsonNode value = FunctionUtils.getValuesListExpression(expressionVisitor, ctx, index);
+            return value == null || value.isNull() || value.isMissingNode() ? null : value;
+        }
+
+        static String text(final JsonNode value, final String name) {
+            if (!value.isTextual()) {
+                throw new IllegalArgumentException("The " + name + " function expects a string argument, but got: " + value);
+            }
+            return value.textValue();
+        }
+    }
+
+    private static final class Sha256Function extends JavaFunction {
+
+        private static final ThreadLocal<Sha256> SHA256 = ThreadLocal.withInitial(Sha256::new);
+
+        Sha256Function() {
+            super("$sha256", 1, 1, "<s:s>");
+        }
+
+        @Override
+        JsonNode apply(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx, final int argCount) {
+            final JsonNode value = argument(expressionVisitor, ctx, 0, argCount);
+            return value != null ? TextNode.valueOf(SHA256.get().hex(text(value, "$sha256"))) : null;
+        }
+
+        /**
+         * A message digest, along with reusable buffers for its input and output.
+         */
+        private static final class Sha256 {
+
+            private final MessageDigest digest;
+
+            private final byte[] hash = new byte[32];
+
+            private final char[] hex = new char[64];
+
+            // strings are digested by chunks, so that the buffer does not grow with the largest string.
+            private final byte[] input = new byte[4096];
+
+            Sha256() {
+                try {
+                    this.digest = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            String hex(final String value) {
+                if (!updateAscii(value)) {
+                    digest.reset();
+                    digest.update(value.getBytes(StandardCharsets.UTF_8));
+                }
+                try {
+                    digest.digest(hash, 0, hash.length);
+                } catch (DigestException e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < hash.length; i++) {
+                    hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+                    hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+                }
+                return new String(hex);
+            }
+
+            /**
+             * Digests the given string if it is ASCII, i.e. if its UTF-8 bytes are its chars.
+             *
+             * @return {@code false} if the string is not ASCII, in which case the digest must be reset.
+             */
+            private boolean updateAscii(final String value) {
+                final int length = value.length();
+                for (int offset = 0; offset < length; offset += input.length) {
+                    final int chunk = Math.min(input.length, length - offset);
+                    for (int i = 0; i < chunk; i++) {
+                        final char c = value.charAt(offset + i);
+                        if (c >= 0x80) {
+                            return false;
+                        }
+                        input[i] = (byte) c;
+                    }
+                    digest.update(input, 0, chunk);
+                }
+                return true;
+            }
+        }
+    }
+
+    private static final class UuidFunction extends JavaFunction {
+
+        UuidFunction() {
+            super("$uuid", 0, 0, "<:s>");
+        }
+
+        @Override
+        JsonNode apply(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx, final int argCount) {
+            // the UUIDs can be used as identifiers, so they are generated from a cryptographically strong generator.
+            return TextNode.valueOf(UUID.randomUUID().toString());
+        }
+    }
+
+    private static final class ParseTimestampFunction extends JavaFunction {
+
+        ParseTimestampFunction() {
+            super("$parseTimestamp", 1, 3, "<ss?s?:n>");
+        }
+
+        @Override
+        JsonNode apply(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx, final int argCount) {
+            final JsonNode value = argument(expressionVisitor, ctx, 0, argCount);
+            if (value == null) {
+                return null;
+            }
+            final JsonNode pattern = argument(expressionVisitor, ctx, 1, argCount);
+            final JsonNode zone = argument(expressionVisitor, ctx, 2, argCount);
+
+            final DateTimeFormatter formatter = pattern != null ? formatter(text(pattern, "$parseTimestamp")) : DateTimeFormatter.ISO_DATE_TIME;
+            final ZoneId zoneId = zone != null ? zone(text(zone, "$parseTimestamp")) : ZoneOffset.UTC;
+            try {
+                final TemporalAccessor parsed = formatter.parseBest(text(value, "$parseTimestamp"), ZonedDateTime::from, LocalDateTime::from, LocalDate::from);
+                final ZonedDateTime timestamp = switch (parsed) {
+                    case ZonedDateTime zoned -> zoned;
+                    case LocalDateTime local -> local.atZone(zoneId);
+                    case LocalDate date -> date.atStartOfDay(zoneId);
+                    default -> throw new IllegalStateException("Unexpected parsed value: " + parsed);
+                };
+                return LongNode.valueOf(timestamp.toInstant().toEpochMilli());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("The $parseTimestamp function failed to parse: " + value.textValue(), e);
+            }
+        }
+    }
+
+    private static final class FormatTimestampFunction extends JavaFunction {
+
+        FormatTimestampFunction() {
+            super("$formatTimestamp", 1, 3, "<ns?s?:s>");
+        }
+
+        @Override
+        JsonNode apply(final ExpressionsVisitor expressionVisitor, final Function_callContext ctx, final int argCount) {
+            final JsonNode value = argument(expressionVisitor, ctx, 0, argCount);
+            if (value == null) {
+                return null;
+            }
+            if (!value.isNumber()) {
+                throw new IllegalArgumentException("The $formatTimestamp function expects a number of milliseconds, but got: " + value);
+            }
+            final JsonNode pattern = argument(expressionVisitor, ctx, 1, argCount);
+            final JsonNode zone = argument(expressionVisitor, ctx, 2, argCount);
+
+            final DateTimeFormatter formatter = pattern != null ? formatter(text(pattern, "$formatTimestamp")) : DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+            final ZoneId zoneId = zone != null ? zone(text(zone, "$formatTimestamp")) : ZoneOffset.UTC;
+            return TextNode.valueOf(formatter.format(Instant.ofEpochMilli(value.longValue()).atZone(zoneId)));
+        }
+    }
+
+    private static DateTimeFormatter formatter(final String pattern) {
+        return FORMATTERS.get(pattern);
+    }
+
+    private static ZoneId zone(final String zone) {
+        return ZONES.get(zone);
+    }
+}
@@ -0,0 +1,101 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Utility methods for the {@link JsonNode} values held in memory by aggregations and sorts.
+ */
+final class JsonNodes {
+
+    private JsonNodes() {
+    }
+
+    /**
+     * Estimates the heap size of the given value, in bytes.
+     *
+     * @param node the value, or {@code null}.
+     * @return the estimated size.
+     */
+    static long estimateSize(final JsonNode node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.isObject()) {
+            long size = 48;
+            final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                size += 40 + 2L * field.getKey().length() + estimateSize(field.getValue());
+            }
+            return size;
+        }
+        if (node.isArray()) {
+            long size = 32;
+            for (JsonNode element : node) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (node.isTextual()) {
+            return 40 + 2L * node.textValue().length();
+        }
+        return 16;
+    }
+
+    /**
+     * Compares two sort keys.
+     * <p>
+     * Numbers are compared by value, strings lexicographically, and booleans with {@code false} first.
+     * Values of different types are ordered as numbers, strings, booleans, then other values compared by their
+     * JSON representation; undefined and {@code null} values come last.
+     *
+     * @param left  the first key, or {@code null} if undefined.
+     * @param right the second key, or {@code null} if undefined.
+     * @return a negative integer, zero, or a positive integer as the first key is less than, equal to, or greater than the second.
+     */
+    static int compare(final JsonNode left, final JsonNode right) {
+        final int leftRank = rank(left);
+        final int rightRank = rank(right);
+        if (leftRank != rightRank) {
+            return Integer.compare(leftRank, rightRank);
+        }
+        return switch (leftRank) {
+            case 0 -> left.isIntegralNumber() && right.isIntegralNumber()
+                ? left.bigIntegerValue().compareTo(right.bigIntegerValue())
+                : Double.compare(left.doubleValue(), right.doubleValue());
+            case 1 -> left.textValue().compareTo(right.textValue());
+            case 2 -> Boolean.compare(left.booleanValue(), right.booleanValue());
+            case 3 -> left.toString().compareTo(right.toString());
+            default -> 0;
+        };
+    }
+
+    /**
+     * Checks whether the given value is undefined or {@code null}.
+     *
+     * @param node the value, or {@code null} if undefined.
+     * @return {@code true} if the value is undefined or {@code null}.
+     */
+    static boolean isUndefined(final JsonNode node) {
+        return node == null || node.isNull() || node.isMissingNode();
+    }
+
+    private static int rank(final JsonNode node) {
+        if (isUndefined(node)) {
+            return 4;
+        }
+        if (node.isNumber()) {
+            return 0;
+        }
+        if (node.isTextual()) {
+            return 1;
+        }
+        if (node.isBoolean()) {
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,146 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams the elements of the array found at a JSON pointer within a single JSON or ION document.
+ * <p>
+ * The document is read token by token: the values preceding the array are skipped without being parsed into a tree,
+ * each element of the array is parsed on demand, and the rest of the document is never read.
+ * The memory used is therefore bounded by the largest element, rather than by the whole document.
+ */
+public final class JsonPointerReader {
+
+    private JsonPointerReader() {
+    }
+
+    /**
+     * Reads the elements of the array at the given pointer.
+     * If the value at the pointer is not an array, it is read as the only element.
+     *
+     * @param is      the document {@link InputStream}.
+     * @param mapper  the {@link ObjectMapper} of the document format.
+     * @param pointer the JSON pointer, e.g. {@code /products}, or an empty string for the document root.
+     * @return the elements.
+     * @throws IllegalArgumentException if the pointer is invalid.
+     */
+    public static Flux<JsonNode> readAll(final InputStream is, final ObjectMapper mapper, final String pointer) {
+        final JsonPointer jsonPointer = JsonPointer.compile(pointer);
+        return Flux.generate(
+            () -> open(is, mapper, jsonPointer),
+            (state, sink) -> {
+                try {
+                    final JsonNode next = state.next(mapper);
+                    if (next != null) {
+                        sink.next(next);
+                    } else {
+                        sink.complete();
+                    }
+                } catch (IOException e) {
+                    sink.error(new UncheckedIOException(e));
+                }
+                return state;
+            },
+            State::close
+        );
+    }
+
+    private static State open(final InputStream is, final ObjectMapper mapper, final JsonPointer pointer) throws IOException {
+        final JsonParser parser = mapper.createParser(is);
+        try {
+            if (!navigate(parser, pointer)) {
+                throw new IllegalArgumentException("No value found at JSON pointer '" + pointer + "'");
+            }
+            return new State(parser, parser.currentToken() == JsonToken.START_ARRAY);
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the parser to the first token of the value at the given pointer, skipping all the other values.
+     */
+    private static boolean navigate(final JsonParser parser, final JsonPointer pointer) throws IOException {
+        if (parser.nextToken() == null) {
+            return false;
+        }
+
+        JsonPointer current = pointer;
+        while (!current.matches()) {
+            final JsonToken token = parser.currentToken();
+            boolean found = false;
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String name = parser.currentName();
+                    parser.nextToken();
+                    if (name.equals(current.getMatchingProperty())) {
+                        found = true;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            } else if (token == JsonToken.START_ARRAY && current.getMatchingIndex() >= 0) {
+                for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+                    if (i == current.getMatchingIndex()) {
+                        found = true;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                return false;
+            }
+            current = current.tail();
+        }
+        return true;
+    }
+
+    private static final class State {
+
+        private final JsonParser parser;
+
+        private final boolean array;
+
+        private boolean done;
+
+        State(final JsonParser parser, final boolean array) {
+            this.parser = parser;
+            this.array = array;
+        }
+
+        JsonNode next(final ObjectMapper mapper) throws IOException {
+            if (done) {
+                return null;
+            }
+            if (!array) {
+                done = true;
+                return mapper.readTree(parser);
+            }
+            final JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                done = true;
+                return null;
+            }
+            return mapper.readTree(parser);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+/**
+ * A histogram of durations, in nanoseconds, with a fixed memory footprint.
+ * <p>
+ * Values are recorded in log-linear buckets: each power of two is split into {@value #SUB_BUCKETS} buckets,
+ * so that a percentile is accurate within 12.5% whatever the magnitude of the values. The maximum is exact.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[index(Long.MAX_VALUE) + 1];
+
+    private long count;
+
+    private long max;
+
+    /**
+     * Records the given duration.
+     *
+     * @param nanos the duration, in nanoseconds. Negative durations are recorded as zero.
+     */
+    public synchronized void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return the count.
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     *
+     * @return the duration, in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public synchronized long max() {
+        return max;
+    }
+
+    /**
+     * Gets the duration below which the given ratio of the recorded durations fall.
+     *
+     * @param ratio the ratio, between {@code 0} and {@code 1}, e.g. {@code 0.99} for the 99th percentile.
+     * @return the upper bound of the bucket holding the percentile, in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public synchronized long percentile(final double ratio) {
+        final long rank = Math.max(1, (long) Math.ceil(ratio * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (width - 1);
+    }
+}
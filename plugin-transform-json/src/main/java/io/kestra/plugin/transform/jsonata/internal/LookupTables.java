@@ -0,0 +1,70 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Loads reference datasets into lookup tables, i.e. JSON objects whose fields are the entries indexed by key.
+ * <p>
+ * A lookup table is bound to the expressions as a variable, so that an entry is accessed in constant time with
+ * the JSONata {@code $lookup()} function, e.g. {@code $lookup($catalog, product_id)}.
+ */
+public final class LookupTables {
+
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private LookupTables() {
+    }
+
+    /**
+     * Reads the entries of the given file into a lookup table.
+     * <p>
+     * Files with a {@code .json} extension are read as a single JSON document, either an array of entries or a
+     * single entry. Files with a {@code .jsonl} or {@code .ndjson} extension are read as newline-delimited JSON,
+     * and other files as ION, one entry per value. Gzip compressed files must be decompressed by the caller.
+     *
+     * @param is   the file {@link InputStream}.
+     * @param from the file URI, used to detect its format.
+     * @param key  the name of the field whose text value is the key of an entry.
+     * @return the lookup table. Entries without the key field are ignored, and the last entry of a key wins.
+     */
+    public static ObjectNode read(final InputStream is, final URI from, final String key) throws IOException {
+        final ObjectNode table = JsonNodeFactory.instance.objectNode();
+        final String path = String.valueOf(from.getPath()).toLowerCase(Locale.ROOT).replaceFirst("\\.gz$", "");
+
+        if (path.endsWith(".json")) {
+            final JsonNode document = JSON_OBJECT_MAPPER.readTree(is);
+            if (document != null && document.isArray()) {
+                document.forEach(entry -> index(table, entry, key));
+            } else if (document != null) {
+                index(table, document, key);
+            }
+            return table;
+        }
+
+        final Flux<JsonNode> entries = path.endsWith(".jsonl") || path.endsWith(".ndjson")
+            ? NdJsonSerde.readAll(is)
+            : FileSerde.readAll(is, new TypeReference<JsonNode>() {
+            });
+        entries.doOnNext(entry -> index(table, entry, key)).then().block();
+        return table;
+    }
+
+    private static void index(final ObjectNode table, final JsonNode entry, final String key) {
+        final JsonNode value = entry.get(key);
+        if (value != null && !value.isNull() && value.isValueNode()) {
+            table.set(value.asText(), entry);
+        }
+    }
+}
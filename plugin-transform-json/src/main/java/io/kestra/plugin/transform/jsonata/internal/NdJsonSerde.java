@@ -0,0 +1,114 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.kestra.core.serializers.JacksonMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads and writes newline-delimited JSON (NDJSON) files, mirroring the {@code FileSerde} methods used for ION files.
+ * <p>
+ * Values are streamed with a Jackson parser and generator, one at a time, without being converted from or to ION.
+ */
+public final class NdJsonSerde {
+
+    private static final ObjectMapper JSON_OBJECT_MAPPER = JacksonMapper.ofJson();
+
+    private static final ObjectWriter WRITER = JSON_OBJECT_MAPPER
+        .writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        // the stream is owned by the caller.
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .withRootValueSeparator("\n");
+
+    private static final int LINE_SEPARATOR = '\n';
+
+    private NdJsonSerde() {
+    }
+
+    /**
+     * Reads all the values of the given NDJSON stream.
+     *
+     * @param is the {@link InputStream}.
+     * @return the values.
+     */
+    public static Flux<JsonNode> readAll(final InputStream is) {
+        return Flux.generate(
+            () -> JSON_OBJECT_MAPPER.readerFor(JsonNode.class).<JsonNode>readValues(is),
+            (iterator, sink) -> {
+                try {
+                    if (iterator.hasNextValue()) {
+                        sink.next(iterator.nextValue());
+                    } else {
+                        sink.complete();
+                    }
+                } catch (IOException e) {
+                    sink.error(new UncheckedIOException(e));
+                }
+                return iterator;
+            },
+            NdJsonSerde::closeIterator
+        );
+    }
+
+    /**
+     * Writes all the given values to the given stream, one per line.
+     *
+     * @param os     the {@link OutputStream}, which is not closed.
+     * @param values the values.
+     * @return the number of values written.
+     */
+    public static Mono<Long> writeAll(final OutputStream os, final Flux<?> values) {
+        return Mono.using(
+            () -> WRITER.writeValues(os),
+            sequence -> values
+                .doOnNext(value -> {
+                    try {
+                        sequence.write(value);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .count()
+                .doOnNext(count -> {
+                    try {
+                        sequence.flush();
+                        // the last line is terminated too, so that files can be merged by appending them.
+                        if (count > 0) {
+                            os.write(LINE_SEPARATOR);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }),
+            NdJsonSerde::closeSequence
+        );
+    }
+
+    private static void closeIterator(final MappingIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeSequence(final SequenceWriter sequence) {
+        try {
+            sequence.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
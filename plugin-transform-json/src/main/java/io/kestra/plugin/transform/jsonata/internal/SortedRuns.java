@@ -0,0 +1,149 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Writes and merges the sorted runs spilled to disk by external aggregations and sorts.
+ * <p>
+ * A run is an ION file of {@code {key, value}} entries sorted by key. Runs are merged by keeping the current entry
+ * of each run in a priority queue, so that only one entry per run is held in memory.
+ */
+final class SortedRuns {
+
+    private static final ObjectMapper ION_OBJECT_MAPPER = JacksonMapper.ofIon();
+
+    private static final String KEY_FIELD = "key";
+    private static final String VALUE_FIELD = "value";
+
+    private SortedRuns() {
+    }
+
+    /**
+     * Writes an entry to a run.
+     *
+     * @param os    the run {@link OutputStream}.
+     * @param key   the entry key.
+     * @param value the entry value.
+     */
+    static void write(final OutputStream os, final JsonNode key, final JsonNode value) throws IOException {
+        final ObjectNode entry = JsonNodeFactory.instance.objectNode();
+        entry.set(KEY_FIELD, key);
+        entry.set(VALUE_FIELD, value);
+        FileSerde.write(os, entry);
+    }
+
+    /**
+     * Opens the given runs, positioned on their first entry.
+     *
+     * @param runs       the run files, in the order they were spilled.
+     * @param comparator the order of the entry keys.
+     * @return the readers ordered by their current entry, then by run index, so that equal keys are read in spill order.
+     */
+    static PriorityQueue<Reader> open(final List<Path> runs, final Comparator<JsonNode> comparator) throws IOException {
+        final PriorityQueue<Reader> heads = new PriorityQueue<>(
+            Comparator.<Reader, JsonNode>comparing(Reader::key, comparator).thenComparingInt(Reader::index)
+        );
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                advance(heads, new Reader(Files.newBufferedReader(runs.get(i), StandardCharsets.UTF_8), i));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(heads);
+            throw e;
+        }
+        return heads;
+    }
+
+    /**
+     * Moves the given reader to its next entry, and queues it back unless the run is exhausted.
+     *
+     * @param heads  the readers.
+     * @param reader the reader, which was polled from the readers.
+     */
+    static void advance(final PriorityQueue<Reader> heads, final Reader reader) throws IOException {
+        if (reader.advance()) {
+            heads.add(reader);
+        } else {
+            reader.close();
+        }
+    }
+
+    /**
+     * Closes all the given readers.
+     *
+     * @param heads the readers.
+     */
+    static void closeAll(final PriorityQueue<Reader> heads) throws IOException {
+        for (Reader reader : heads) {
+            reader.close();
+        }
+        heads.clear();
+    }
+
+    /**
+     * Reads the entries of a run, one at a time.
+     */
+    static final class Reader implements Closeable {
+
+        private final BufferedReader reader;
+
+        private final int index;
+
+        private JsonNode key;
+
+        private JsonNode value;
+
+        Reader(final BufferedReader reader, final int index) {
+            this.reader = reader;
+            this.index = index;
+        }
+
+        int index() {
+            return index;
+        }
+
+        JsonNode key() {
+            return key;
+        }
+
+        JsonNode value() {
+            return value;
+        }
+
+        private boolean advance() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+            } while (line.isBlank());
+
+            final JsonNode entry = ION_OBJECT_MAPPER.readTree(line);
+            this.key = entry.get(KEY_FIELD);
+            this.value = entry.get(VALUE_FIELD);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.kestra.plugin.transform.jsonata;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+@KestraTest
+class GroupItemsTest {
+
+    private static final String REDUCER = """
+        {
+          "customer": key,
+          "orders": $sum([accumulator.orders, 1]),
+          "total": $sum([accumulator.total, item.amount])
+        }
+        """;
+
+    private static final String COMBINER = """
+        {
+          "customer": key,
+          "orders": accumulator.orders + partial.orders,
+          "total": accumulator.total + partial.total
+        }
+        """;
+
+    private static final List<String> EXPECTED = List.of(
+        "alice:3:60.0",
+        "bob:2:7.0",
+        "carol:1:100.0"
+    );
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void shouldReduceItemsByKeyInMemory() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        GroupItems task = GroupItems.builder()
+            .from(putOrders(runContext).toString())
+            .key("customer")
+            .expression(REDUCER)
+            .build();
+
+        // When
+        GroupItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(6, output.getProcessedItemsTotal());
+        Assertions.assertEquals(3, output.getGroupsTotal());
+        Assertions.assertEquals(0, output.getSpilledRunsTotal());
+        Assertions.assertEquals(EXPECTED, readAll(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldSpillAndMergeRunsGivenSmallMaxMemorySize() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        GroupItems task = GroupItems.builder()
+            .from(putOrders(runContext).toString())
+            .key("customer")
+            .expression(REDUCER)
+            .combiner(COMBINER)
+            // a single group fits, but not two.
+            .maxMemorySize(500L)
+            .build();
+
+        // When
+        GroupItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getSpilledRunsTotal());
+        Assertions.assertEquals(3, output.getGroupsTotal());
+        Assertions.assertEquals(EXPECTED, readAll(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldSortGroupsByNumericKeyValue() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        final Path path = runContext.workingDir().createTempFile(".ion");
+        try (final OutputStream os = Files.newOutputStream(path)) {
+            FileSerde.writeAll(os, Flux.just(
+                Map.of("id", 10),
+                Map.of("id", 9),
+                Map.of("id", 100),
+                Map.of("id", 2),
+                Map.of("id", 9)
+            )).block();
+        }
+        URI uri = runContext.storage().putFile(path.toFile());
+
+        for (Long maxMemorySize : List.of(64L * 1024 * 1024, 300L)) {
+            GroupItems task = GroupItems.builder()
+                .from(uri.toString())
+                .key("id")
+                .expression("{ 'id': key, 'count': $sum([accumulator.count, 1]) }")
+                .combiner("{ 'id': key, 'count': accumulator.count + partial.count }")
+                .maxMemorySize(maxMemorySize)
+                .build();
+
+            // When
+            GroupItems.Output output = task.run(runContext);
+
+            // Then
+            try (InputStream is = runContext.storage().getFile(output.getUri())) {
+                List<String> groups = FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+                    })
+                    .map(group -> ((Number) group.get("id")).intValue() + ":" + ((Number) group.get("count")).intValue())
+                    .collectList()
+                    .block();
+                Assertions.assertEquals(List.of("2:1", "9:2", "10:1", "100:1"), groups, "maxMemorySize=" + maxMemorySize);
+            }
+        }
+    }
+
+    @Test
+    void shouldFailGivenSmallMaxMemorySizeWithoutCombiner() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        GroupItems task = GroupItems.builder()
+            .from(putOrders(runContext).toString())
+            .key("customer")
+            .expression(REDUCER)
+            .maxMemorySize(500L)
+            .build();
+
+        // When / Then
+        Assertions.assertThrows(IllegalStateException.class, () -> task.run(runContext));
+    }
+
+    @Test
+    void shouldFailGivenGroupStateLargerThanMaxMemorySize() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        GroupItems task = GroupItems.builder()
+            .from(putOrders(runContext).toString())
+            .key("customer")
+            .expression(REDUCER)
+            .combiner(COMBINER)
+            .maxMemorySize(1L)
+            .build();
+
+        // When / Then
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () -> task.run(runContext));
+        Assertions.assertTrue(e.getMessage().contains("\"bob\""), e.getMessage());
+    }
+
+    private static URI putOrders(RunContext runContext) throws Exception {
+        final Path path = runContext.workingDir().createTempFile(".ion");
+        try (final OutputStream os = Files.newOutputStream(path)) {
+            FileSerde.writeAll(os, Flux.just(
+                Map.of("customer", "bob", "amount", 5),
+                Map.of("customer", "alice", "amount", 10),
+                Map.of("customer", "carol", "amount", 100),
+                Map.of("customer", "alice", "amount", 20),
+                Map.of("customer", "bob", "amount", 2),
+                Map.of("customer", "alice", "amount", 30)
+            )).block();
+        }
+        return runContext.storage().putFile(path.toFile());
+    }
+
+    private static List<String> readAll(RunContext runContext, URI uri) throws Exception {
+        try (InputStream is = runContext.storage().getFile(uri)) {
+            return FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+                })
+                .map(group -> group.get("customer") + ":" +
+                    ((Number) group.get("orders")).intValue() + ":" +
+                    ((Number) group.get("total")).doubleValue()
+                )
+                .collectList()
+                .block();
+        }
+    }
+}
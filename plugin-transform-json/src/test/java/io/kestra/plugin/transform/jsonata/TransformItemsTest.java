@@ -6,6 +6,8 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.transform.internal.Checkpoints;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -15,9 +17,13 @@ import reactor.core.publisher.Mono;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @KestraTest
 class TransformItemsTest {
@@ -57,5 +63,486 @@ class TransformItemsTest {
         Assertions.assertEquals(Features.DATASET_ACCOUNT_ORDER_EXPR_RESULT, transformationResult);
     }
 
+    @Test
+    void shouldGetMergedOutputForMultipleFromURIs() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI first = putFile(runContext, Flux.just(Map.of("name", "apple"), Map.of("name", "banana")));
+        URI second = putFile(runContext, Flux.just(Map.of("name", "orange")));
+
+        TransformItems task = TransformItems.builder()
+            .from(List.of(first.toString(), second.toString()))
+            .expression("$uppercase(name)")
+            .maxConcurrency(2)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertEquals(List.of(2L, 1L), output.getFiles().stream().map(TransformItems.FileOutput::getProcessedItemsTotal).toList());
+
+        InputStream is = runContext.storage().getFile(output.getUri());
+        List<String> transformationResult = FileSerde.readAll(is, new TypeReference<String>() {
+        }).collectList().block();
+
+        Assertions.assertEquals(List.of("APPLE", "BANANA", "ORANGE"), transformationResult);
+    }
+
+    @Test
+    void shouldTransformGivenMultiMemberGzipFile() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion.gz");
+        try (final OutputStream os = Files.newOutputStream(ouputFilePath)) {
+            for (String name : List.of("apple", "banana")) {
+                // each item is written as a separate gzip member
+                GZIPOutputStream gzip = new GZIPOutputStream(os);
+                FileSerde.write(gzip, Map.of("name", name));
+                gzip.finish();
+            }
+        }
+        URI uri = runContext.storage().putFile(ouputFilePath.toFile());
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$uppercase(name)")
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+
+        InputStream is = runContext.storage().getFile(output.getUri());
+        List<String> transformationResult = FileSerde.readAll(is, new TypeReference<String>() {
+        }).collectList().block();
+
+        Assertions.assertEquals(List.of("APPLE", "BANANA"), transformationResult);
+    }
+
+    @Test
+    void shouldResumeFromCheckpointGivenCheckpointInterval() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of(Map.of(
+            "flow", Map.of("id", "jsonata", "namespace", "io.kestra.tests"),
+            "execution", Map.of("id", IdUtils.create()),
+            "taskrun", Map.of("id", IdUtils.create())
+        ));
+        URI uri = putFile(runContext, Flux.just(Map.of("name", "apple"), Map.of("name", "banana"), Map.of("name", "orange")));
+
+        // simulate a previous attempt that already flushed the first item
+        URI partition = putFile(runContext, Flux.just("PREVIOUS"));
+        Checkpoints checkpoints = Checkpoints.of(runContext, 0).orElseThrow();
+        checkpoints.save(Checkpoints.Checkpoint.EMPTY.next(1, 1, partition));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$uppercase(name)")
+            .checkpointInterval(1)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+
+        InputStream is = runContext.storage().getFile(output.getUri());
+        List<String> transformationResult = FileSerde.readAll(is, new TypeReference<String>() {
+        }).collectList().block();
+
+        Assertions.assertEquals(List.of("PREVIOUS", "BANANA", "ORANGE"), transformationResult);
+        Assertions.assertEquals(Checkpoints.Checkpoint.EMPTY, checkpoints.load());
+    }
+
+    @Test
+    void shouldFailGivenCheckpointIntervalWithRoutedErrorsDistinctByOrSortBy() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(Map.of("name", "apple")));
+
+        TransformItems.TransformItemsBuilder<?, ?> builder = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$uppercase(name)")
+            .checkpointInterval(1);
+
+        // When - Then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.onError(TransformItems.OnError.ROUTE).build().run(runContext));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.onError(TransformItems.OnError.FAIL).distinctBy("name").build().run(runContext));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.distinctBy(null).sortBy("name").build().run(runContext));
+    }
+
+    @Test
+    void shouldDropItemsGivenFilterFalseOrUndefined() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(
+            Map.of("name", "apple", "status", "PAID"),
+            Map.of("name", "banana", "status", "PENDING"),
+            Map.of("name", "orange")
+        ));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .filter("status = 'PAID'")
+            .expression("$uppercase(name)")
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(1, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getKeptItemsTotal());
+        Assertions.assertEquals(2, output.getDroppedItemsTotal());
+
+        InputStream is = runContext.storage().getFile(output.getUri());
+        List<String> transformationResult = FileSerde.readAll(is, new TypeReference<String>() {
+        }).collectList().block();
+
+        Assertions.assertEquals(List.of("APPLE"), transformationResult);
+    }
+
+    @Test
+    void shouldRouteFailedItemsGivenOnErrorRoute() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(Map.of("value", "42"), Map.of("value", "abc"), Map.of("value", "7")));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$number(value)")
+            .onError(TransformItems.OnError.ROUTE)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getFailedItemsTotal());
+
+        try (InputStream is = runContext.storage().getFile(output.getUri())) {
+            List<Integer> transformationResult = FileSerde.readAll(is, new TypeReference<Number>() {
+            }).map(Number::intValue).collectList().block();
+            Assertions.assertEquals(List.of(42, 7), transformationResult);
+        }
+        try (InputStream is = runContext.storage().getFile(output.getErrorsUri())) {
+            List<Map<String, Object>> errors = FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+            }).collectList().block();
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertEquals(Map.of("value", "abc"), errors.getFirst().get("item"));
+            Assertions.assertNotNull(errors.getFirst().get("error"));
+        }
+    }
+
+    @Test
+    void shouldSkipFailedItemsGivenOnErrorSkip() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(Map.of("value", "42"), Map.of("value", "abc"), Map.of("value", "7")));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$number(value)")
+            .onError(TransformItems.OnError.SKIP)
+            .maxErrorRatio(0.5)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getFailedItemsTotal());
+        Assertions.assertNull(output.getErrorsUri());
+    }
+
+    @Test
+    void shouldFailGivenMaxErrorRatioExceeded() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(Map.of("value", "42"), Map.of("value", "abc"), Map.of("value", "def")));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$number(value)")
+            .onError(TransformItems.OnError.SKIP)
+            .maxErrorRatio(0.5)
+            .build();
+
+        // When - Then
+        Assertions.assertThrows(IllegalStateException.class, () -> task.run(runContext));
+    }
+
+    @Test
+    void shouldStreamArrayElementsGivenJsonPointer() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        final Path documentPath = runContext.workingDir().createTempFile(".json");
+        Files.writeString(documentPath, """
+            {
+              "meta": {"count": 2, "tags": ["a", "b"]},
+              "products": [{"name": "apple", "price": 1}, {"name": "banana", "price": 2}],
+              "tail": [1, 2, 3]
+            }
+            """);
+        URI uri = runContext.storage().putFile(documentPath.toFile());
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .jsonPointer("/products")
+            .expression("$uppercase(name)")
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+
+        InputStream is = runContext.storage().getFile(output.getUri());
+        List<String> transformationResult = FileSerde.readAll(is, new TypeReference<String>() {
+        }).collectList().block();
+
+        Assertions.assertEquals(List.of("APPLE", "BANANA"), transformationResult);
+    }
+
+    @Test
+    void shouldReadAndWriteNdJsonGivenNdJsonFormats() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        final Path inputPath = runContext.workingDir().createTempFile(".jsonl");
+        Files.writeString(inputPath, "{\"name\": \"apple\", \"price\": 1.5}\n{\"name\": \"banana\", \"price\": 2}\n");
+        URI uri = runContext.storage().putFile(inputPath.toFile());
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .inputFormat(TransformItems.Format.NDJSON)
+            .outputFormat(TransformItems.Format.NDJSON)
+            .expression("{ 'product': $uppercase(name), 'price': price * 2 }")
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(2, output.getProcessedItemsTotal());
+        Assertions.assertTrue(output.getUri().getPath().endsWith(".jsonl"));
+
+        try (InputStream is = runContext.storage().getFile(output.getUri())) {
+            List<String> lines = new String(is.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            Assertions.assertEquals(2, lines.size());
+            Assertions.assertEquals("APPLE", new ObjectMapper().readTree(lines.get(0)).get("product").asText());
+            Assertions.assertEquals(4.0, new ObjectMapper().readTree(lines.get(1)).get("price").asDouble());
+        }
+    }
+
+    @Test
+    void shouldKeepFirstItemsGivenTopN() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(
+            Map.of("path", "/a", "duration", 120),
+            Map.of("path", "/b", "duration", 15),
+            Map.of("path", "/c", "duration", 900),
+            Map.of("path", "/d"),
+            Map.of("path", "/e", "duration", 300)
+        ));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$")
+            .sortBy("duration")
+            .sortOrder(TransformItems.SortOrder.DESC)
+            .topN(3)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertEquals(List.of(3L), output.getFiles().stream().map(TransformItems.FileOutput::getProcessedItemsTotal).toList());
+        Assertions.assertEquals(0, output.getSpilledRunsTotal());
+        Assertions.assertEquals(List.of("/c", "/e", "/a"), readPaths(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldKeepFirstItemsOfAllFilesGivenTopNAndMergedOutputs() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        List<String> from = List.of(
+            putFile(runContext, Flux.just(
+                Map.of("path", "/a", "duration", 120),
+                Map.of("path", "/b", "duration", 15)
+            )).toString(),
+            putFile(runContext, Flux.just(
+                Map.of("path", "/c", "duration", 900),
+                Map.of("path", "/d", "duration", 300),
+                Map.of("path", "/e", "duration", 5)
+            )).toString()
+        );
+
+        TransformItems task = TransformItems.builder()
+            .from(from)
+            .expression("$")
+            .sortBy("duration")
+            .sortOrder(TransformItems.SortOrder.DESC)
+            .topN(3)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getProcessedItemsTotal());
+        Assertions.assertEquals(List.of(1L, 2L), output.getFiles().stream().map(TransformItems.FileOutput::getProcessedItemsTotal).toList());
+        Assertions.assertEquals(List.of("/c", "/d", "/a"), readPaths(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldSortAllItemsWithSpilledRunsGivenSmallMaxSortMemorySize() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(
+            Map.of("path", "/a", "duration", 120),
+            Map.of("path", "/b", "duration", 15),
+            Map.of("path", "/c", "duration", 900),
+            Map.of("path", "/d"),
+            Map.of("path", "/e", "duration", 120)
+        ));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$")
+            .sortBy("duration")
+            .maxSortMemorySize(1L)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(5, output.getSpilledRunsTotal());
+        Assertions.assertTrue(output.getSpilledBytesTotal() > 0);
+        // equal keys keep their order, and undefined keys come last.
+        Assertions.assertEquals(List.of("/b", "/a", "/e", "/c", "/d"), readPaths(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldDropDuplicatesGivenApproximateDistinctBy() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(
+            Map.of("path", "/a", "event", "e1"),
+            Map.of("path", "/b", "event", "e2"),
+            Map.of("path", "/a", "event", "e1"),
+            Map.of("path", "/c"),
+            Map.of("path", "/c")
+        ));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$")
+            .distinctBy("event")
+            .distinctMode(TransformItems.DistinctMode.APPROXIMATE)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(4, output.getProcessedItemsTotal());
+        Assertions.assertEquals(1, output.getDuplicateItemsTotal());
+        // items with an undefined key are never duplicates.
+        Assertions.assertEquals(List.of("/a", "/b", "/c", "/c"), readPaths(runContext, output.getUri()));
+    }
+
+    @Test
+    void shouldKeepFirstOccurrenceInInputOrderGivenDistinctByAcrossFiles() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        List<String> from = new ArrayList<>();
+        for (String path : List.of("/a", "/b", "/c", "/d")) {
+            from.add(putFile(runContext, Flux.just(Map.of("path", path, "event", "e1"))).toString());
+        }
+
+        TransformItems task = TransformItems.builder()
+            .from(from)
+            .expression("$")
+            .distinctBy("event")
+            .maxConcurrency(4)
+            .mergeOutputs(false)
+            .build();
+
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(3, output.getDuplicateItemsTotal());
+        Assertions.assertEquals(List.of(1L, 0L, 0L, 0L), output.getFiles().stream().map(TransformItems.FileOutput::getProcessedItemsTotal).toList());
+        Assertions.assertEquals(List.of("/a"), readPaths(runContext, output.getFiles().getFirst().getUri()));
+    }
+
+    @Test
+    void shouldWriteSlowestItemsGivenLatencySamplingInterval() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        URI uri = putFile(runContext, Flux.just(
+            Map.of("path", "/a"),
+            Map.of("path", "/b"),
+            Map.of("path", "/c"),
+            Map.of("path", "/d")
+        ));
+
+        TransformItems task = TransformItems.builder()
+            .from(uri.toString())
+            .expression("$")
+            .latencySamplingInterval(2)
+            .slowestItems(5)
+            .build();
 
+        // When
+        TransformItems.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals(4, output.getProcessedItemsTotal());
+        try (InputStream is = runContext.storage().getFile(output.getSlowestItemsUri())) {
+            List<Map<String, Object>> slowest = FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+                })
+                .collectList()
+                .block();
+            // only the items at offsets 0 and 2 are sampled.
+            Assertions.assertEquals(2, slowest.size());
+            Assertions.assertEquals(
+                List.of(0, 2),
+                slowest.stream().map(item -> ((Number) item.get("offset")).intValue()).sorted().toList()
+            );
+            Assertions.assertEquals(uri.toString(), slowest.getFirst().get("from"));
+            Assertions.assertTrue(((Number) slowest.getFirst().get("durationNanos")).longValue() >= ((Number) slowest.getLast().get("durationNanos")).longValue());
+        }
+    }
+
+    private static List<String> readPaths(RunContext runContext, URI uri) throws Exception {
+        try (InputStream is = runContext.storage().getFile(uri)) {
+            return FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+                })
+                .map(item -> (String) item.get("path"))
+                .collectList()
+                .block();
+        }
+    }
+
+    private static URI putFile(RunContext runContext, Flux<?> items) throws Exception {
+        final Path ouputFilePath = runContext.workingDir().createTempFile(".ion");
+        try (final OutputStream os = Files.newOutputStream(ouputFilePath)) {
+            FileSerde.writeAll(os, items).block();
+            os.flush();
+        }
+        return runContext.storage().putFile(ouputFilePath.toFile());
+    }
 }
\ No newline at end of file
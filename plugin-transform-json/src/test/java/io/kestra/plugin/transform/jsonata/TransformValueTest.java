@@ -1,12 +1,21 @@
 package io.kestra.plugin.transform.jsonata;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
 @KestraTest
 class TransformValueTest {
 
@@ -78,4 +87,77 @@ class TransformValueTest {
         Assertions.assertNotNull(output);
         Assertions.assertEquals("{\"order_id\":\"ABC123\",\"customer_name\":\"John Doe\",\"total_price\":4.2}", output.getValue().toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldStoreValueGivenValueLargerThanMaxInlineSize() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        TransformValue task = TransformValue.builder()
+            .from("""
+                {"order_id": "ABC123", "customer_name": "John Doe"}
+                """)
+            .expression("$")
+            .maxInlineSize(16)
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertNull(output.getValue());
+        Assertions.assertNotNull(output.getUri());
+        try (InputStream is = runContext.storage().getFile(output.getUri())) {
+            List<Map<String, Object>> values = FileSerde.readAll(is, new TypeReference<Map<String, Object>>() {
+            }).collectList().block();
+            Assertions.assertEquals(List.of(Map.of("order_id", "ABC123", "customer_name", "John Doe")), values);
+        }
+    }
+
+    @Test
+    void shouldReturnValueInlineGivenValueSmallerThanMaxInlineSize() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        TransformValue task = TransformValue.builder()
+            .from("""
+                {"order_id": "ABC123"}
+                """)
+            .expression("order_id")
+            .maxInlineSize(1024)
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertNull(output.getUri());
+        Assertions.assertEquals("\"ABC123\"", output.getValue().toString());
+    }
+
+    @Test
+    void shouldEnrichValueGivenLookups() throws Exception {
+        // Given
+        RunContext runContext = runContextFactory.of();
+        final Path catalogPath = runContext.workingDir().createTempFile(".json");
+        Files.writeString(catalogPath, """
+            [
+              {"product_id": "001", "name": "Apple"},
+              {"product_id": "002", "name": "Banana"}
+            ]
+            """);
+        URI catalog = runContext.storage().putFile(catalogPath.toFile());
+
+        TransformValue task = TransformValue.builder()
+            .from("""
+                {"order_id": "ABC123", "items": [{"product_id": "002"}, {"product_id": "001"}, {"product_id": "999"}]}
+                """)
+            .expression("items.($lookup($catalog, product_id).name)")
+            .lookups(Map.of("catalog", JSONataInterface.Lookup.builder().from(catalog.toString()).key("product_id").build()))
+            .build();
+
+        // When
+        TransformValue.Output output = task.run(runContext);
+
+        // Then
+        Assertions.assertEquals("[\"Banana\",\"Apple\"]", output.getValue().toString());
+    }
+}
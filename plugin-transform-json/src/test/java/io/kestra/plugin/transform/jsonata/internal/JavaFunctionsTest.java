@@ -0,0 +1,128 @@
+package io.kestra.plugin.transform.jsonata.internal;
+
+import com.api.jsonata4java.expressions.Expressions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+class JavaFunctionsTest {
+
+    private static final ObjectNode RECORD = JsonNodeFactory.instance.objectNode()
+        .put("message", "GET /index.html 200 took 125ms")
+        .put("timestamp", "2024-01-15T08:30:45.123+02:00")
+        .put("millis", 1705300245123L);
+
+    @Test
+    void shouldHashGivenSha256() throws Exception {
+        Assertions.assertEquals(
+            "\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"",
+            evaluate("$sha256('abc')").toString()
+        );
+        Assertions.assertEquals(
+            "\"3c48591d8d098a4538f5e013dfcf406e948eac4d3277b10bf614e295d6068179\"",
+            evaluate("$sha256('héllo')").toString()
+        );
+    }
+
+    @Test
+    void shouldGenerateRandomUuids() throws Exception {
+        final String first = evaluate("$uuid()").textValue();
+        final String second = evaluate("$uuid()").textValue();
+
+        Assertions.assertTrue(first.matches("[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}"), first);
+        Assertions.assertNotEquals(first, second);
+    }
+
+    @Test
+    void shouldParseAndFormatTimestamps() throws Exception {
+        Assertions.assertEquals(1705300245123L, evaluate("$parseTimestamp(timestamp)").longValue());
+        Assertions.assertEquals(1705276800000L, evaluate("$parseTimestamp('15/01/2024', 'dd/MM/yyyy')").longValue());
+        Assertions.assertEquals(1705273200000L, evaluate("$parseTimestamp('15/01/2024', 'dd/MM/yyyy', 'Europe/Paris')").longValue());
+        Assertions.assertEquals(
+            "\"2024-01-15 06:30:45.123\"",
+            evaluate("$formatTimestamp(millis, 'yyyy-MM-dd HH:mm:ss.SSS')").toString()
+        );
+        Assertions.assertEquals("\"07:30\"", evaluate("$formatTimestamp(millis, 'HH:mm', 'Europe/Paris')").toString());
+        Assertions.assertEquals("\"2024-01-15T06:30:45.123Z\"", evaluate("$formatTimestamp(millis)").toString());
+    }
+
+    @Test
+    void shouldHashGivenStringLongerThanBuffer() throws Exception {
+        final String ascii = "x".repeat(10_000);
+        final String unicode = ascii + "é";
+        Assertions.assertEquals(
+            '"' + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(ascii.getBytes(StandardCharsets.UTF_8))) + '"',
+            evaluate("$sha256('" + ascii + "')").toString()
+        );
+        Assertions.assertEquals(
+            '"' + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(unicode.getBytes(StandardCharsets.UTF_8))) + '"',
+            evaluate("$sha256('" + unicode + "')").toString()
+        );
+    }
+
+    @Test
+    void shouldReturnUndefinedGivenUndefinedArgument() throws Exception {
+        Assertions.assertNull(evaluate("$sha256(missing)"));
+        Assertions.assertNull(evaluate("$parseTimestamp(missing)"));
+        Assertions.assertNull(evaluate("$formatTimestamp(missing)"));
+    }
+
+    /**
+     * Compares the Java functions with their pure JSONata equivalents.
+     * Run with {@code -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstJsonataEquivalents() throws Exception {
+        final List<String[]> pairs = List.of(
+            new String[]{"$formatTimestamp(millis)", "$fromMillis(millis)"},
+            new String[]{"$parseTimestamp(timestamp)", "$toMillis(timestamp)"}
+        );
+        final int iterations = 20_000;
+
+        for (String[] pair : pairs) {
+            final Expressions java = parse(pair[0]);
+            final Expressions jsonata = parse(pair[1]);
+            long javaNanos = 0;
+            long jsonataNanos = 0;
+            for (int round = 0; round < 2; round++) { // the first round warms up the JIT.
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    java.evaluate(RECORD);
+                }
+                javaNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    jsonata.evaluate(RECORD);
+                }
+                jsonataNanos = System.nanoTime() - start;
+            }
+            System.out.printf(
+                "%s: %.1f ns/call, %s: %.1f ns/call%n",
+                pair[0],
+                (double) javaNanos / iterations,
+                pair[1],
+                (double) jsonataNanos / iterations
+            );
+        }
+    }
+
+    private static JsonNode evaluate(String expression) throws Exception {
+        return parse(expression).evaluate(RECORD);
+    }
+
+    private static Expressions parse(String expression) throws Exception {
+        final Expressions parsed = Expressions.parse(expression);
+        JavaFunctions.register(parsed);
+        return parsed;
+    }
+}